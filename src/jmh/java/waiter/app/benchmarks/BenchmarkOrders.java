@@ -0,0 +1,39 @@
+package waiter.app.benchmarks;
+
+import waiter.app.Enums.OrderStatus;
+import waiter.app.entities.MenuItem;
+import waiter.app.entities.Order;
+import waiter.app.entities.OrderItem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+// Fully initialized (non-proxy) orders, as loaded through the items/menu item entity graph
+final class BenchmarkOrders {
+
+    private BenchmarkOrders() {
+    }
+
+    static Order order(long id, int itemCount) {
+        Order order = Order.builder()
+                .id(id)
+                .createdAt(LocalDateTime.of(2026, 10, 1, 12, 0))
+                .status(OrderStatus.NEW)
+                .waiterUsername("waiter@pda.local")
+                .items(new ArrayList<>(itemCount))
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            MenuItem menuItem = MenuItem.builder().id((long) i).name("Menu item " + i).price(2.5 + i).available(true).build();
+            order.getItems().add(OrderItem.builder()
+                    .id(id * 1000 + i)
+                    .order(order)
+                    .menuItem(menuItem)
+                    .quantity(1 + i % 3)
+                    .unitPriceMinor(250 + 100L * i)
+                    .comments(i % 4 == 0 ? "no ice" : null)
+                    .build());
+        }
+        order.setTotalAmountMinor(order.computeTotalAmountMinor());
+        return order;
+    }
+}
@@ -0,0 +1,56 @@
+package waiter.app.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import waiter.app.services.JwtAuthenticationFilter;
+import waiter.app.utils.JwtUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Everything JwtAuthenticationFilter does for one request with a bearer
+ * token (verified-token cache hit, authorities, security context), and the
+ * pass-through for requests without one. The rest of the chain is a no-op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest authenticated;
+    private MockHttpServletRequest anonymous;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = new JwtUtil();
+        filter = new JwtAuthenticationFilter(jwtUtil, username -> {
+            throw new UsernameNotFoundException(username);
+        }, new SimpleMeterRegistry());
+
+        authenticated = new MockHttpServletRequest("GET", "/api/orders");
+        authenticated.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("waiter@pda.local", "WAITER"));
+        anonymous = new MockHttpServletRequest("GET", "/api/menu");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void bearerToken() throws Exception {
+        SecurityContextHolder.clearContext(); // as at the end of every real request
+        filter.doFilter(authenticated, response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public void noToken() throws Exception {
+        filter.doFilter(anonymous, response, NO_OP_CHAIN);
+    }
+}
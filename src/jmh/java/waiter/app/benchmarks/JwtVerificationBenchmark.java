@@ -0,0 +1,73 @@
+package waiter.app.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import waiter.app.utils.JwtUtil;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling done by JwtAuthenticationFilter for one request:
+ * the previous path (two full parses, each building its own key and parser)
+ * against a single parse with a reusable parser, and the cached path;
+ * plus token issuing at login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtVerificationBenchmark {
+
+    // Same secret as JwtUtil
+    private static final String SECRET = "VerySecretKeyForJwtSigningThatIsAtLeast32BytesLong!";
+
+    private JwtUtil jwtUtil;
+    private JwtParser sharedParser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken("waiter@pda.local", "WAITER");
+        sharedParser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+        jwtUtil.extractAllClaims(token); // warm the verified-token cache
+    }
+
+    @Benchmark
+    public void legacyDoubleParse(Blackhole bh) {
+        bh.consume(legacyParse(token).getSubject());
+        bh.consume(legacyParse(token).get("role", String.class));
+    }
+
+    @Benchmark
+    public void singleParseSharedParser(Blackhole bh) {
+        Claims claims = sharedParser.parseClaimsJws(token).getBody();
+        bh.consume(claims.getSubject());
+        bh.consume(claims.get("role", String.class));
+    }
+
+    @Benchmark
+    public void cachedVerification(Blackhole bh) {
+        Claims claims = jwtUtil.extractAllClaims(token);
+        bh.consume(claims.getSubject());
+        bh.consume(claims.get("role", String.class));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("waiter@pda.local", "WAITER");
+    }
+
+    private static Claims legacyParse(String jwt) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+}
@@ -0,0 +1,45 @@
+package waiter.app.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import waiter.app.dto.OrderDto;
+import waiter.app.mapper.OrderMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization of order lists (one page of GET /api/orders), with
+ * an ObjectMapper configured the way Spring Boot configures its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderJsonBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int orderCount;
+
+    private ObjectWriter writer;
+    private List<OrderDto> orders;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, OrderDto.class));
+
+        OrderMapper orderMapper = new OrderMapper(null);
+        orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            orders.add(orderMapper.toDto(BenchmarkOrders.order(i, 4)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws Exception {
+        return writer.writeValueAsBytes(orders);
+    }
+}
@@ -0,0 +1,41 @@
+package waiter.app.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import waiter.app.dto.OrderDto;
+import waiter.app.entities.Order;
+import waiter.app.mapper.OrderMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping for one order, and the order total recomputed from
+ * its lines, across order sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    private OrderMapper orderMapper;
+    private Order order;
+
+    @Setup
+    public void setup() {
+        // The menu catalog is only consulted for uninitialized menu item proxies
+        orderMapper = new OrderMapper(null);
+        order = BenchmarkOrders.order(1L, itemCount);
+    }
+
+    @Benchmark
+    public OrderDto toDto() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public long computeTotal() {
+        return order.computeTotalAmountMinor();
+    }
+}
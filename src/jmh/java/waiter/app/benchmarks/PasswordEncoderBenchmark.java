@@ -0,0 +1,38 @@
+package waiter.app.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import waiter.app.security.SecurityConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login and registration cost: BCrypt at the strength SecurityConfig uses.
+ * One encode or match is deliberately slow; this shows how slow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        passwordEncoder = new SecurityConfig(null, null, null).passwordEncoder();
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
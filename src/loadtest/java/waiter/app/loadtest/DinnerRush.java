@@ -0,0 +1,185 @@
+package waiter.app.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.FileSystemUtils;
+import waiter.app.Enums.Role;
+import waiter.app.Enums.TableStatus;
+import waiter.app.PdaApplication;
+import waiter.app.dataset.DatasetGenerator;
+import waiter.app.dataset.DatasetSpec;
+import waiter.app.entities.MenuItem;
+import waiter.app.entities.Tables;
+import waiter.app.entities.User;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.TableRepository;
+import waiter.app.repositories.UserRepository;
+import waiter.app.services.ConcurrencyLimitFilter;
+import waiter.app.services.MenuItemService;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Friday-night load in one process: boots the application on the embedded
+ * "loadtest" profile (H2, random port), seeds waiters, tables and a menu,
+ * then runs one thread per waiter against the real HTTP API and prints
+ * throughput and p50/p95/p99 per endpoint.
+ *
+ * <pre>
+ * ./gradlew loadTest -Prush.waiters=80 -Prush.durationSeconds=300 -Prush.thinkMs=1000
+ * ./gradlew loadTest -Prush.historyOrders=500000   (seed past orders with DatasetGenerator first)
+ * ./gradlew compareThreadModes -Prush.waiters=400 -Prush.thinkMs=50 -Prush.dbLatencyMs=5
+ * </pre>
+ *
+ * rush.threadMode picks platform or virtual request threads (pda.threads.mode);
+ * rush.dbLatencyMs adds a delay to every SQL statement, standing in for the
+ * network round trip to MySQL that H2 does not have. Any other argument
+ * is passed to Spring, e.g. --spring.datasource.url=jdbc:mysql://... to run
+ * against a real database.
+ *
+ * Waiters wait for each response before thinking and sending the next
+ * request (closed model), so latencies are those a waiter would see; a
+ * server stall shows up as lower throughput rather than as queued requests.
+ */
+public final class DinnerRush {
+
+    private static final String PASSWORD = "rush-password";
+
+    private DinnerRush() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int waiters = Integer.getInteger("rush.waiters", 40);
+        int durationSeconds = Integer.getInteger("rush.durationSeconds", 120);
+        int warmupSeconds = Integer.getInteger("rush.warmupSeconds", 15);
+        long thinkMs = Long.getLong("rush.thinkMs", 500);
+        int tablesPerWaiter = Integer.getInteger("rush.tablesPerWaiter", 4);
+        int menuSize = Integer.getInteger("rush.menuItems", 60);
+        long seed = Long.getLong("rush.seed", 42);
+        long historyOrders = Long.getLong("rush.historyOrders", 0);
+        String threadMode = System.getProperty("rush.threadMode", "platform");
+        long dbLatencyMs = Long.getLong("rush.dbLatencyMs", 0);
+        Path reportDir = Path.of(System.getProperty("rush.reportDir", "build/loadtest/report/" + threadMode));
+
+        FileSystemUtils.deleteRecursively(Path.of("build/loadtest/journal"));
+        String[] arguments = Stream.concat(Stream.of("--pda.threads.mode=" + threadMode), Arrays.stream(args))
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PdaApplication.class)
+                .profiles("loadtest")
+                .initializers(ctx -> {
+                    if (dbLatencyMs > 0) {
+                        ctx.getBeanFactory().addBeanPostProcessor(new SlowDataSource(dbLatencyMs));
+                    }
+                })
+                .run(arguments);
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<Long> menu = seedMenu(context, menuSize);
+            List<Long> tables = seedTables(context, waiters * tablesPerWaiter);
+            seedWaiters(context, waiters);
+            seedHistory(context, historyOrders, seed);
+
+            System.out.printf("Dinner rush: %d waiters, %d tables, %d menu items, think %d ms, %d s warm-up + %d s measured%n",
+                    waiters, tables.size(), menu.size(), thinkMs, warmupSeconds, durationSeconds);
+            ConcurrencyLimitFilter limiter = context.getBean(ConcurrencyLimitFilter.class);
+            System.out.printf("Request threads: %s, concurrency limit: %s, database latency: %d ms per statement%n",
+                    threadMode, limiter.isEnabled() ? limiter.permits() : "none", dbLatencyMs);
+
+            LatencyBook book = new LatencyBook();
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            long endAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+
+            List<SimulatedWaiter> shift = new ArrayList<>(waiters);
+            List<Thread> threads = new ArrayList<>(waiters);
+            for (int w = 0; w < waiters; w++) {
+                List<Long> section = tables.subList(w * tablesPerWaiter, (w + 1) * tablesPerWaiter);
+                SimulatedWaiter waiter = new SimulatedWaiter(new RushClient(http, baseUrl, book), email(w), PASSWORD,
+                        section, menu, thinkMs, endAt, seed + w);
+                shift.add(waiter);
+                Thread thread = new Thread(waiter, "waiter-" + w);
+                threads.add(thread);
+                thread.start();
+            }
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+            book.startRecording();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            book.report(System.out, reportDir);
+            System.out.printf("orders paid: %d, cancelled: %d%n",
+                    shift.stream().mapToInt(w -> w.ordersPaid).sum(),
+                    shift.stream().mapToInt(w -> w.ordersCancelled).sum());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static String email(int waiter) {
+        return "waiter" + waiter + "@rush.local";
+    }
+
+    private static List<Long> seedMenu(ConfigurableApplicationContext context, int size) {
+        MenuItemRepository menuItems = context.getBean(MenuItemRepository.class);
+        List<MenuItem> menu = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            menu.add(MenuItem.builder().name("Dish " + i).description("Rush menu").price(2.0 + (i % 20) * 0.75)
+                    .available(true).build());
+        }
+        List<Long> ids = menuItems.saveAll(menu).stream().map(MenuItem::getId).toList();
+        context.getBean(MenuItemService.class).refreshCatalog();
+        return ids;
+    }
+
+    private static List<Long> seedTables(ConfigurableApplicationContext context, int count) {
+        List<Tables> tables = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            tables.add(Tables.builder().number(i).status(TableStatus.AVAILABLE).build());
+        }
+        return context.getBean(TableRepository.class).saveAll(tables).stream().map(Tables::getId).toList();
+    }
+
+    // Closed orders from earlier days, so reports and searches run against a realistically sized table
+    private static void seedHistory(ConfigurableApplicationContext context, long orders, long seed) throws Exception {
+        if (orders <= 0) {
+            return;
+        }
+        DatasetSpec spec = DatasetSpec.builder()
+                .menuItems(0).tables(0).users(0)
+                .orders(orders)
+                .lastDay(LocalDate.now().minusDays(1))
+                .seed(seed)
+                .build();
+        DatasetGenerator.Result result = new DatasetGenerator(context.getBean(DataSource.class)).generate(spec);
+        System.out.printf("History: %d orders, %d order items in %d s%n",
+                result.orders(), result.orderItems(), result.elapsed().toSeconds());
+    }
+
+    private static void seedWaiters(ConfigurableApplicationContext context, int count) {
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> users = new ArrayList<>(count);
+        for (int w = 0; w < count; w++) {
+            User user = new User();
+            user.setEmail(email(w));
+            user.setPassword(hash);
+            user.setRole(Role.WAITER);
+            user.setFullName("Rush Waiter " + w);
+            users.add(user);
+        }
+        context.getBean(UserRepository.class).saveAll(users);
+    }
+}
@@ -0,0 +1,77 @@
+package waiter.app.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response times per endpoint (microseconds, 3 significant digits) and
+ * failures per endpoint and status. Nothing is recorded until
+ * {@link #startRecording()}, so warm-up traffic stays out of the report.
+ */
+final class LatencyBook {
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failures = new ConcurrentSkipListMap<>();
+    private volatile long recordingSince;
+
+    void startRecording() {
+        latencies.clear();
+        failures.clear();
+        recordingSince = System.nanoTime();
+    }
+
+    void record(String endpoint, long nanos, int status) {
+        if (recordingSince == 0) {
+            return;
+        }
+        latencies.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(3)).recordValue(Math.max(1, nanos / 1_000));
+        if (status >= 400 || status < 0) {
+            failures.computeIfAbsent(endpoint + " -> " + (status < 0 ? "I/O error" : status), f -> new LongAdder()).increment();
+        }
+    }
+
+    void report(PrintStream out, Path directory) throws IOException {
+        double seconds = (System.nanoTime() - recordingSince) / 1e9;
+        Map<String, Histogram> sorted = new TreeMap<>(latencies);
+        Histogram all = new Histogram(3);
+
+        out.printf("%n%-40s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        sorted.forEach((endpoint, histogram) -> {
+            all.add(histogram);
+            printRow(out, endpoint, histogram, seconds);
+        });
+        printRow(out, "TOTAL", all, seconds);
+
+        out.printf("%nfailures:%s%n", failures.isEmpty() ? " none" : "");
+        failures.forEach((key, count) -> out.printf("  %-60s %d%n", key, count.sum()));
+
+        // Full distributions, loadable in the HdrHistogram plotter
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : sorted.entrySet()) {
+            String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(file)))) {
+                entry.getValue().outputPercentileDistribution(hgrm, 1_000.0); // in milliseconds
+            }
+        }
+        out.printf("%nmeasured %.0f s; percentile distributions in %s%n", seconds, directory.toAbsolutePath());
+    }
+
+    private static void printRow(PrintStream out, String endpoint, Histogram histogram, double seconds) {
+        out.printf("%-40s %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint, histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1_000.0,
+                histogram.getValueAtPercentile(95) / 1_000.0,
+                histogram.getValueAtPercentile(99) / 1_000.0,
+                histogram.getMaxValue() / 1_000.0);
+    }
+}
@@ -0,0 +1,144 @@
+package waiter.app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One PDA's connection to the server. Every call is timed under a fixed
+ * endpoint name (path template, not the concrete URL) in the shared book.
+ */
+final class RushClient {
+
+    static final class Response {
+        final int status;
+        final String body;
+        final String etag;
+
+        private Response(int status, String body, String etag) {
+            this.status = status;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final LatencyBook book;
+    private String token;
+    private String refreshToken;
+    private long renewAt; // System.nanoTime() after which the access token is renewed
+
+    RushClient(HttpClient http, String baseUrl, LatencyBook book) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.book = book;
+    }
+
+    void login(String email, String password) throws InterruptedException {
+        Response response;
+        int attempts = 0;
+        do {
+            if (attempts > 0) {
+                Thread.sleep(1_000); // 503 from the concurrency limiter carries Retry-After: 1
+            }
+            response = send("POST /api/auth/login", request("/api/auth/login")
+                    .POST(body(JSON.createObjectNode().put("email", email).put("password", password)
+                            .put("deviceId", "rush-" + email))));
+        } while (response.status == 503 && ++attempts < 10);
+        if (!response.ok()) {
+            throw new IllegalStateException("Login failed for " + email + ": " + response.status);
+        }
+        accept(json(response));
+    }
+
+    // Renews the access token a minute before it expires, the way a PDA does during a shift
+    private void renewIfDue() throws InterruptedException {
+        if (System.nanoTime() < renewAt) {
+            return;
+        }
+        Response response = send("POST /api/auth/refresh", request("/api/auth/refresh")
+                .POST(body(JSON.createObjectNode().put("refreshToken", refreshToken))));
+        if (!response.ok()) {
+            throw new IllegalStateException("Token refresh failed: " + response.status);
+        }
+        accept(json(response));
+    }
+
+    private void accept(JsonNode auth) {
+        token = auth.get("token").asText();
+        refreshToken = auth.get("refreshToken").asText();
+        renewAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(1, auth.get("expiresIn").asLong() - 60));
+    }
+
+    Response get(String endpoint, String path, String ifNoneMatch) throws InterruptedException {
+        renewIfDue();
+        HttpRequest.Builder request = authorized(path).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return send(endpoint, request);
+    }
+
+    Response post(String endpoint, String path, JsonNode body) throws InterruptedException {
+        renewIfDue();
+        return send(endpoint, authorized(path).POST(body(body)));
+    }
+
+    Response put(String endpoint, String path) throws InterruptedException {
+        renewIfDue();
+        return send(endpoint, authorized(path).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    static JsonNode json(Response response) {
+        try {
+            return JSON.readTree(response.body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected response body: " + response.body, e);
+        }
+    }
+
+    static ObjectMapper mapper() {
+        return JSON;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return request(path).header("Authorization", "Bearer " + token);
+    }
+
+    private static HttpRequest.BodyPublisher body(JsonNode json) {
+        return HttpRequest.BodyPublishers.ofString(json.toString());
+    }
+
+    private Response send(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            book.record(endpoint, System.nanoTime() - start, response.statusCode());
+            return new Response(response.statusCode(), response.body(),
+                    response.headers().firstValue("ETag").orElse(null));
+        } catch (IOException e) {
+            book.record(endpoint, System.nanoTime() - start, -1);
+            return new Response(-1, e.toString(), null);
+        }
+    }
+}
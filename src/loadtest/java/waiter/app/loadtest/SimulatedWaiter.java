@@ -0,0 +1,136 @@
+package waiter.app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One waiter's shift: log in, then serve tables from their own section until
+ * the rush ends. Per table: claim it, take the order, amend it, let the kitchen
+ * move it along, take payment (or cancel) and free the table, with think times
+ * between the steps.
+ */
+final class SimulatedWaiter implements Runnable {
+
+    private final RushClient client;
+    private final String email;
+    private final String password;
+    private final List<Long> section;    // table ids only this waiter serves
+    private final List<Long> menuItemIds;
+    private final long meanThinkMs;
+    private final long endAt;            // System.nanoTime() deadline
+    private final SplittableRandom random;
+
+    private String tablesETag;
+    int ordersPaid;
+    int ordersCancelled;
+
+    SimulatedWaiter(RushClient client, String email, String password, List<Long> section, List<Long> menuItemIds,
+                    long meanThinkMs, long endAt, long seed) {
+        this.client = client;
+        this.email = email;
+        this.password = password;
+        this.section = section;
+        this.menuItemIds = menuItemIds;
+        this.meanThinkMs = meanThinkMs;
+        this.endAt = endAt;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void run() {
+        try {
+            client.login(email, password);
+            while (System.nanoTime() < endAt) {
+                serveTable();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serveTable() throws InterruptedException {
+        RushClient.Response tables = client.get("GET /api/tables", "/api/tables", tablesETag);
+        if (tables.etag != null) {
+            tablesETag = tables.etag;
+        }
+        long tableId = section.get(random.nextInt(section.size()));
+        client.put("PUT /api/tables/{id}/status", "/api/tables/" + tableId + "/status?status=OCCUPIED");
+        think(2);
+
+        RushClient.Response created = client.post("POST /api/orders", "/api/orders", newOrder());
+        if (!created.ok()) {
+            return;
+        }
+        long orderId = RushClient.json(created).get("id").asLong();
+        String order = "/api/orders/" + orderId;
+        think(3);
+
+        long extra = pickMenuItem();
+        client.post("POST /api/orders/{id}/add-item", order + "/add-item", RushClient.mapper().createObjectNode()
+                .put("menuItemId", extra).put("quantity", 1 + random.nextInt(2)));
+        if (random.nextInt(10) < 3) {
+            think(1);
+            client.post("POST /api/orders/{id}/remove-item", order + "/remove-item", RushClient.mapper().createObjectNode()
+                    .put("menuItemId", extra).put("quantity", 1));
+        }
+
+        // Kitchen side: picked up, cooked, ready at the pass
+        client.put("PUT /api/orders/{id}/status", order + "/status?status=IN_PROGRESS");
+        think(4);
+        client.put("PUT /api/orders/{id}/status", order + "/status?status=READY");
+        think(2);
+        client.get("GET /api/orders/{id}", order, null);
+
+        if (random.nextInt(20) == 0) {
+            client.put("PUT /api/orders/{id}/cancel", order + "/cancel");
+            ordersCancelled++;
+        } else {
+            think(3);
+            String method = random.nextBoolean() ? "CARD" : "CASH";
+            if (client.put("PUT /api/orders/{id}/pay", order + "/pay?method=" + method).ok()) {
+                ordersPaid++;
+            }
+        }
+        client.put("PUT /api/tables/{id}/status", "/api/tables/" + tableId + "/status?status=AVAILABLE");
+        think(1);
+    }
+
+    private JsonNode newOrder() {
+        ObjectNode order = RushClient.mapper().createObjectNode()
+                .put("waiterUsername", email)
+                .put("status", "NEW");
+        ArrayNode items = order.putArray("items");
+        List<Long> chosen = new ArrayList<>();
+        int lines = 1 + random.nextInt(4);
+        while (chosen.size() < lines) {
+            long menuItemId = pickMenuItem();
+            if (!chosen.contains(menuItemId)) {
+                chosen.add(menuItemId);
+                items.addObject()
+                        .put("menuItemId", menuItemId)
+                        .put("menuItemName", "item")
+                        .put("quantity", 1 + random.nextInt(3));
+            }
+        }
+        return order;
+    }
+
+    private long pickMenuItem() {
+        return menuItemIds.get(random.nextInt(menuItemIds.size()));
+    }
+
+    // Exponentially distributed pause, weight x the mean think time
+    private void think(int weight) throws InterruptedException {
+        if (meanThinkMs <= 0) {
+            return;
+        }
+        double pause = -Math.log(1 - random.nextDouble()) * meanThinkMs * weight;
+        long remainingMs = (endAt - System.nanoTime()) / 1_000_000;
+        Thread.sleep(Math.max(0, Math.min((long) pause, remainingMs)));
+    }
+}
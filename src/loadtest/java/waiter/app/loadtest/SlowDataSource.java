@@ -0,0 +1,65 @@
+package waiter.app.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Adds a fixed delay to every statement execution, so the in-memory database
+ * behaves like one across a network: the request thread waits with a pooled
+ * connection checked out, as it would on MySQL. That wait is what separates
+ * platform from virtual request threads; without it H2 answers in
+ * microseconds and both modes are CPU-bound.
+ */
+final class SlowDataSource implements BeanPostProcessor {
+
+    private final long latencyMs;
+
+    SlowDataSource(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return proxy(DataSource.class, dataSource, (method, result) ->
+                result instanceof Connection connection ? proxy(Connection.class, connection, this::wrapStatement) : result);
+    }
+
+    private Object wrapStatement(Method method, Object result) {
+        // Statement, PreparedStatement and CallableStatement alike: delay their execute* calls
+        if (result instanceof Statement statement) {
+            Class<?> type = method.getReturnType();
+            return proxy(type, statement, (call, value) -> value);
+        }
+        return result;
+    }
+
+    private interface ResultWrapper {
+        Object wrap(Method method, Object result);
+    }
+
+    private <T> T proxy(Class<?> type, Object target, ResultWrapper wrapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                Thread.sleep(latencyMs);
+            }
+            try {
+                return wrapper.wrap(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        @SuppressWarnings("unchecked")
+        T proxy = (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+        return proxy;
+    }
+}
@@ -0,0 +1,8 @@
+package waiter.app.Enums;
+
+public enum BulkStatusOutcome {
+    UPDATED,
+    NOT_FOUND,
+    CONFLICT,
+    REJECTED
+}
@@ -0,0 +1,12 @@
+package waiter.app.Enums;
+
+// Stored by ordinal in the order journal: only ever append new constants
+public enum JournalEntryType {
+    CREATED,
+    ITEM_ADDED,
+    ITEM_REMOVED,
+    STATUS_CHANGED,
+    PAID,
+    REFUNDED,
+    DELETED
+}
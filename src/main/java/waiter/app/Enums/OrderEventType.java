@@ -0,0 +1,8 @@
+package waiter.app.Enums;
+
+public enum OrderEventType {
+    CREATED,
+    STATUS_CHANGED,
+    ITEM_ADDED,
+    ITEM_REMOVED
+}
@@ -1,10 +1,54 @@
 package waiter.app.Enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     NEW,
     IN_PROGRESS,
     READY,
     PAID,
     CANCELLED,
-    REFUNDED
+    REFUNDED;
+
+    // Allowed transitions: current status -> statuses it may move to
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(NEW, EnumSet.of(IN_PROGRESS, READY, CANCELLED));
+        TRANSITIONS.put(IN_PROGRESS, EnumSet.of(READY, CANCELLED));
+        TRANSITIONS.put(READY, EnumSet.of(IN_PROGRESS, PAID, CANCELLED));
+        TRANSITIONS.put(PAID, EnumSet.of(REFUNDED));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(REFUNDED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    // Orders whose items may still change
+    private static final Set<OrderStatus> OPEN = Collections.unmodifiableSet(EnumSet.of(NEW, IN_PROGRESS, READY));
+
+    public static Set<OrderStatus> openStatuses() {
+        return OPEN;
+    }
+
+    public boolean isOpen() {
+        return OPEN.contains(this);
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    // Statuses an order must be in to move to the target (used in conditional updates)
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        TRANSITIONS.forEach((from, targets) -> {
+            if (targets.contains(target)) {
+                sources.add(from);
+            }
+        });
+        return Collections.unmodifiableSet(sources);
+    }
 }
@@ -0,0 +1,10 @@
+package waiter.app.Enums;
+
+// Why a refresh token stopped being usable
+public enum RefreshTokenRevocation {
+    ROTATED,        // exchanged for its successor
+    REPLACED,       // a new login on the same device
+    LOGOUT,
+    REVOKED,        // by an admin, or because the user's credentials or role changed
+    REUSE_DETECTED  // a rotated token came back: the whole login session is closed
+}
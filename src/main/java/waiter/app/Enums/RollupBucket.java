@@ -0,0 +1,19 @@
+package waiter.app.Enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupBucket {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupBucket(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime startOf(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,8 @@
+package waiter.app.Enums;
+
+public enum RollupDimension {
+    TOTAL,          // key ""
+    WAITER,         // key = waiter username
+    PAYMENT_METHOD, // key = PaymentMethod name
+    MENU_ITEM       // key = menu item id
+}
@@ -0,0 +1,8 @@
+package waiter.app.Enums;
+
+public enum SyncOperationType {
+    CREATE_ORDER,
+    ADD_ITEM,
+    REMOVE_ITEM,
+    CHANGE_STATUS
+}
@@ -0,0 +1,8 @@
+package waiter.app.Enums;
+
+public enum SyncOutcome {
+    APPLIED,
+    DUPLICATE,   // applied by an earlier sync, not applied again
+    FAILED,
+    NOT_APPLIED  // rolled back or never reached because another operation failed
+}
@@ -2,8 +2,10 @@ package waiter.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PdaApplication {
     public static void main(String[] args) {
         SpringApplication.run(PdaApplication.class, args);
@@ -0,0 +1,50 @@
+package waiter.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * pda.threads.mode=virtual: every servlet request, @Async / MVC async task
+ * and scheduled job runs on its own virtual thread, so a request blocked on
+ * MySQL no longer holds one of a fixed number of Tomcat threads.
+ * Concurrency is bounded by {@link waiter.app.services.ConcurrencyLimitFilter}
+ * instead, sized from the connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pda.threads.mode", havingValue = "virtual")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadRequests() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(virtualThreads("http-vt-")));
+    }
+
+    // Replaces Boot's pooled applicationTaskExecutor (also used for MVC async requests)
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newThreadPerTaskExecutor(virtualThreads("task-vt-")));
+    }
+
+    // The pool size only bounds how many jobs run at once; each runs on a virtual thread
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:1}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadFactory(virtualThreads("scheduling-vt-"));
+        return scheduler;
+    }
+
+    private static ThreadFactory virtualThreads(String prefix) {
+        return Thread.ofVirtual().name(prefix, 0).factory();
+    }
+}
@@ -0,0 +1,70 @@
+package waiter.app.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.TokenCacheStatsDto;
+import waiter.app.services.OrderExportService;
+import waiter.app.utils.JwtUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private final JwtUtil jwtUtil;
+    private final OrderExportService orderExportService;
+
+    @GetMapping("/token-cache")
+    public ResponseEntity<TokenCacheStatsDto> tokenCacheStats() {
+        CacheStats stats = jwtUtil.verifiedTokenCacheStats();
+        return ResponseEntity.ok(new TokenCacheStatsDto(
+                jwtUtil.verifiedTokenCacheSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        ));
+    }
+
+    // Month-end accounting export: every order line created in [from, to], streamed as it is read
+    @GetMapping("/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(defaultValue = "CSV") OrderExportService.Format format) {
+        try {
+            orderExportService.validate(from, to);
+        } catch (IllegalArgumentException e) {
+            byte[] message = e.getMessage().getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> out.write(message));
+        }
+
+        boolean csv = format == OrderExportService.Format.CSV;
+        StreamingResponseBody body = out -> orderExportService.export(from, to, status, format, out);
+
+        MediaType contentType = csv
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders-" + from + "_" + to + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+}
@@ -2,16 +2,18 @@ package waiter.app.controllers;
 
 import waiter.app.dto.RegisterRequest;
 import waiter.app.dto.AuthRequest;
-import waiter.app.dto.AuthResponse;
 import waiter.app.entities.User;
 import waiter.app.Enums.Role;
 import waiter.app.repositories.UserRepository;
-import waiter.app.utils.JwtUtil;
+import waiter.app.dto.RefreshTokenRequest;
+import waiter.app.services.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
@@ -25,7 +27,7 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepo;
-    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @PostMapping("/register")
@@ -51,19 +53,40 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody AuthRequest request) {
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
         } catch (BadCredentialsException ex) {
             return ResponseEntity.status(401).body("Invalid credentials");
         }
 
-        User user = userRepo.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The authenticated principal already carries the role: no second user lookup
+        String role = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("User has no role"));
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        return ResponseEntity.ok(refreshTokenService.login(authentication.getName(), role, request.getDeviceId()));
+    }
+
+    // Renews the access token without the password; the presented refresh token is used up
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            return ResponseEntity.ok(refreshTokenService.refresh(request.getRefreshToken()));
+        } catch (BadCredentialsException ex) {
+            return ResponseEntity.status(401).body(ex.getMessage());
+        }
+    }
 
-        return ResponseEntity.ok(new AuthResponse(token, user.getRole().name()));
+    // Ends this device's session; its current access token stays valid until it expires
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        refreshTokenService.logout(request.getRefreshToken());
+        return ResponseEntity.ok("Logged out");
     }
 }
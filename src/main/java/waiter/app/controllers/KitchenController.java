@@ -0,0 +1,38 @@
+package waiter.app.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.KitchenBoardDto;
+import waiter.app.services.KitchenBoard;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/kitchen")
+@RequiredArgsConstructor
+public class KitchenController {
+
+    private final KitchenBoard kitchenBoard;
+
+    // Served from memory, no database access; the ETag is the board version so idle screens poll with 304s
+    @GetMapping("/board")
+    public ResponseEntity<?> board(@RequestParam(required = false) Set<OrderStatus> status, WebRequest request) {
+        try {
+            KitchenBoardDto board = kitchenBoard.view(status);
+            String filter = (status == null || status.isEmpty()) ? "" : "-" + new TreeSet<>(status).stream()
+                    .map(OrderStatus::name).collect(Collectors.joining("."));
+            String etag = "\"k" + board.getVersion() + filter + "\"";
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(etag).body(board);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to load kitchen board: " + e.getMessage());
+        }
+    }
+}
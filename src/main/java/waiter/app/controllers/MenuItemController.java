@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import waiter.app.dto.MenuCatalogStatsDto;
 import waiter.app.dto.MenuItemDto;
 import waiter.app.services.MenuItemService;
 
@@ -27,4 +28,10 @@ public class MenuItemController {
     public ResponseEntity<MenuItemDto> create(@Valid @RequestBody MenuItemDto dto) {
         return ResponseEntity.ok(menuItemService.createMenuItem(dto));
     }
+
+    @GetMapping("/catalog")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MenuCatalogStatsDto> catalogStats() {
+        return ResponseEntity.ok(menuItemService.getCatalogStats());
+    }
 }
@@ -2,21 +2,47 @@ package waiter.app.controllers;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import waiter.app.Enums.PaymentMethod;
 import waiter.app.dto.AddOrderItemRequest;
+import waiter.app.dto.BulkStatusResultDto;
+import waiter.app.dto.BulkStatusUpdateRequest;
 import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderItemDeltaDto;
+import waiter.app.dto.OrderItemDeltaRequest;
+import waiter.app.dto.OrderPageDto;
+import waiter.app.dto.OrderSearchCriteria;
 import waiter.app.Enums.OrderStatus;
 import waiter.app.dto.RemoveOrderItemRequest;
+import waiter.app.dto.SyncBatchRequest;
+import waiter.app.dto.SyncBatchResultDto;
 import waiter.app.entities.Order;
+import waiter.app.exceptions.OrderConflictException;
+import waiter.app.journal.OrderJournal;
+import waiter.app.journal.OrderJournalEntry;
 import waiter.app.repositories.OrderRepository;
+import waiter.app.services.KitchenBoard;
+import waiter.app.services.OrderEventStream;
 import waiter.app.services.OrderService;
+import waiter.app.services.OrderSyncService;
+import waiter.app.utils.Money;
 
+import java.math.BigDecimal;
 import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -24,26 +50,78 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderEventStream orderEventStream;
+    private final OrderSyncService orderSyncService;
     private final OrderRepository orderRepository;
+    private final KitchenBoard kitchenBoard;
+    private final OrderJournal orderJournal;
 
     @GetMapping
-    public ResponseEntity<?> getAll() {
+    public ResponseEntity<?> getAll(@RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer limit) {
         try {
-            List<OrderDto> orders = orderService.getAllOrders();
-            return ResponseEntity.ok(orders);
+            OrderPageDto page = orderService.getOrders(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Failed to retrieve orders: " + e.getMessage());
         }
     }
 
+    // e.g. /api/orders/search?mine=true&status=NEW&status=IN_PROGRESS
+    @GetMapping("/search")
+    public ResponseEntity<?> search(
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(required = false) String waiter,
+            @RequestParam(defaultValue = "false") boolean mine,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Principal principal) {
+        try {
+            OrderSearchCriteria criteria = new OrderSearchCriteria(
+                    status,
+                    mine ? principal.getName() : waiter,
+                    from,
+                    to,
+                    minAmount == null ? null : Money.toMinor(minAmount),
+                    maxAmount == null ? null : Money.toMinor(maxAmount));
+            OrderPageDto page = orderService.searchOrders(criteria, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to search orders: " + e.getMessage());
+        }
+    }
+
+    // Live order changes as Server-Sent Events; reconnecting clients send Last-Event-ID
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam(required = false) Set<OrderStatus> status,
+                                             @RequestParam(required = false) String waiter,
+                                             @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = orderEventStream.subscribe(status, waiter, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(503).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('WAITER') or hasRole('ADMIN')")
     public ResponseEntity<?> createOrder(@Valid @RequestBody OrderDto orderDto, Principal principal) {
         try {
             OrderDto createdOrder = orderService.createOrder(orderDto, principal.getName());
             return ResponseEntity.ok(createdOrder);
-        } catch (Exception e) {
+        } catch (IllegalStateException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Order creation failed: " + e.getMessage());
+        } catch (Exception e) {
+            // Database and other transient failures: 5xx, so an Idempotency-Key retry runs again
+            return ResponseEntity.status(500).body("Order creation failed: " + e.getMessage());
         }
     }
 
@@ -53,6 +131,8 @@ public class OrderController {
         try {
             OrderDto updatedOrder = orderService.updateStatus(id, status);
             return ResponseEntity.ok(updatedOrder);
+        } catch (OrderConflictException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IllegalStateException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -60,6 +140,46 @@ public class OrderController {
         }
     }
 
+    // Kitchen pass: many status changes in one request and one transaction
+    @PutMapping("/status")
+    @PreAuthorize("hasRole('WAITER') or hasRole('ADMIN')")
+    public ResponseEntity<?> updateStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        Map<Long, OrderStatus> changes = new LinkedHashMap<>();
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            if (request.getStatus() == null) {
+                return ResponseEntity.badRequest().body("Status is required together with orderIds");
+            }
+            request.getOrderIds().forEach(orderId -> changes.put(orderId, request.getStatus()));
+        }
+        if (request.getTransitions() != null) {
+            request.getTransitions().forEach(change -> changes.put(change.getOrderId(), change.getStatus()));
+        }
+        try {
+            List<BulkStatusResultDto> results = orderService.updateStatuses(changes);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to update order statuses: " + e.getMessage());
+        }
+    }
+
+    // Offline queue replay: one round trip, one transaction, per-operation outcomes
+    @PostMapping("/sync")
+    @PreAuthorize("hasRole('WAITER') or hasRole('ADMIN')")
+    public ResponseEntity<?> sync(@Valid @RequestBody SyncBatchRequest request, Principal principal) {
+        try {
+            SyncBatchResultDto result = orderSyncService.sync(request, principal.getName());
+            return ResponseEntity.ok(result);
+        } catch (OrderConflictException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to sync operations: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}/pay")
     @PreAuthorize("hasRole('WAITER') or hasRole('ADMIN')")
     public ResponseEntity<?> payOrder(@PathVariable Long id, @RequestParam(name = "method") PaymentMethod method) {
@@ -69,6 +189,8 @@ public class OrderController {
         try {
             OrderDto paidOrder = orderService.payOrder(id, method);
             return ResponseEntity.ok(paidOrder);
+        } catch (OrderConflictException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IllegalStateException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -82,6 +204,8 @@ public class OrderController {
         try {
             OrderDto canceledOrder = orderService.cancelOrder(id, principal.getName());
             return ResponseEntity.ok(canceledOrder);
+        } catch (OrderConflictException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IllegalStateException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -95,6 +219,8 @@ public class OrderController {
         try {
             OrderDto refundedOrder = orderService.refundOrder(id, principal.getName(), reason);
             return ResponseEntity.ok(refundedOrder);
+        } catch (OrderConflictException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IllegalStateException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -103,10 +229,17 @@ public class OrderController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<?> getOrderById(@PathVariable Long id, WebRequest request) {
         try {
+            Optional<String> etag = orderService.getOrderETag(id);
+            if (etag.isEmpty()) {
+                return ResponseEntity.status(404).body("Order not found");
+            }
+            if (request.checkNotModified(etag.get())) {
+                return null; // 304 without loading the order
+            }
             OrderDto dto = orderService.getOrderDtoById(id);
-            return ResponseEntity.ok(dto);
+            return ResponseEntity.ok().eTag(etag.get()).body(dto);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(404).body(e.getMessage());
         } catch (RuntimeException e) {
@@ -120,11 +253,13 @@ public class OrderController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> deleteOrder(@PathVariable Long id) {
+    public ResponseEntity<?> deleteOrder(@PathVariable Long id, Principal principal) {
         try {
             return orderRepository.findById(id)
                     .map(order -> {
                         orderRepository.delete(order);
+                        kitchenBoard.remove(id);
+                        orderJournal.append(OrderJournalEntry.deleted(id, principal.getName()));
                         return ResponseEntity.ok("Order deleted successfully");
                     })
                     .orElseGet(() -> ResponseEntity.status(404).body("Order not found"));
@@ -139,6 +274,8 @@ public class OrderController {
         try {
             OrderDto updatedOrder = orderService.addItemToOrder(id, request);
             return ResponseEntity.ok(updatedOrder);
+        } catch (OrderConflictException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IllegalStateException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -146,12 +283,31 @@ public class OrderController {
         }
     }
 
+    // Atomic +/- on one line; returns the line quantity and order total, not the whole order
+    @PostMapping("/{id}/items/delta")
+    @PreAuthorize("hasRole('WAITER') or hasRole('ADMIN')")
+    public ResponseEntity<?> changeItemQuantity(@PathVariable Long id, @Valid @RequestBody OrderItemDeltaRequest request) {
+        try {
+            OrderItemDeltaDto result = orderService.applyItemDelta(id, request.getMenuItemId(),
+                    request.getDelta(), request.getComments());
+            return ResponseEntity.ok(result);
+        } catch (OrderConflictException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to change item quantity: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/{id}/remove-item")
     @PreAuthorize("hasRole('WAITER') or hasRole('ADMIN')")
     public ResponseEntity<?> removeItem(@PathVariable Long id, @Valid @RequestBody RemoveOrderItemRequest request) {
         try {
             OrderDto updatedOrder = orderService.removeItemFromOrder(id, request);
             return ResponseEntity.ok(updatedOrder);
+        } catch (OrderConflictException | ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
         } catch (IllegalStateException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -0,0 +1,52 @@
+package waiter.app.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import waiter.app.Enums.RollupBucket;
+import waiter.app.Enums.RollupDimension;
+import waiter.app.dto.SalesRollupDto;
+import waiter.app.services.SalesRollupService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ReportController {
+
+    private final SalesRollupService salesRollupService;
+
+    // e.g. /api/reports/sales?bucket=DAY&dimension=WAITER&from=2026-10-01&to=2026-10-31 (days inclusive)
+    @GetMapping("/sales")
+    public ResponseEntity<?> sales(@RequestParam(defaultValue = "DAY") RollupBucket bucket,
+                                   @RequestParam(defaultValue = "TOTAL") RollupDimension dimension,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            List<SalesRollupDto> rollups = salesRollupService.getRollups(bucket, dimension, from, to);
+            return ResponseEntity.ok(rollups);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Backfill or repair: recomputes the given days from the orders table
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<?> rebuild(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            int days = salesRollupService.rebuild(from, to);
+            return ResponseEntity.ok(Map.of("daysRebuilt", days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to rebuild sales rollups: " + e.getMessage());
+        }
+    }
+}
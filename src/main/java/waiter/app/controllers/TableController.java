@@ -7,6 +7,7 @@ import waiter.app.services.TableService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.security.Principal;
 import java.util.List;
@@ -19,8 +20,12 @@ public class TableController {
     private final TableService tableService;
 
     @GetMapping
-    public ResponseEntity<List<TableDto>> getAll() {
-        return ResponseEntity.ok(tableService.getAllTables());
+    public ResponseEntity<List<TableDto>> getAll(WebRequest request) {
+        String etag = tableService.getTablesETag();
+        if (request.checkNotModified(etag)) {
+            return null; // 304, tables are not loaded
+        }
+        return ResponseEntity.ok().eTag(etag).body(tableService.getAllTables());
     }
 
     @PutMapping("/{id}/status")
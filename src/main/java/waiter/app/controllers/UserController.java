@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import waiter.app.dto.UpdateUserRequest;
 import waiter.app.entities.User;
 import waiter.app.repositories.UserRepository;
+import waiter.app.services.RefreshTokenService;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +21,7 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -43,6 +45,14 @@ public class UserController {
         }
         User user = userOptional.get();
 
+        // New credentials or role: sessions issued under the old ones must log in again
+        boolean credentialsChanged = (updatedUser.getEmail() != null && !updatedUser.getEmail().equals(user.getEmail()))
+                || (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty())
+                || (updatedUser.getRole() != null && updatedUser.getRole() != user.getRole());
+        if (credentialsChanged) {
+            refreshTokenService.revokeUser(user.getEmail());
+        }
+
         if (updatedUser.getFullName() != null) {
             user.setFullName(updatedUser.getFullName());
         }
@@ -65,9 +75,24 @@ public class UserController {
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         return userRepository.findById(id)
                 .map(user -> {
+                    refreshTokenService.revokeUser(user.getEmail());
                     userRepository.delete(user);
                     return ResponseEntity.ok("User deleted successfully");
                 })
                 .orElseGet(() -> ResponseEntity.status(404).body("User not found"));
     }
+
+    // Revokes the user's refresh tokens, on every device or only deviceId; access tokens run out within minutes
+    @DeleteMapping("/{id}/sessions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeSessions(@PathVariable Long id, @RequestParam(required = false) String deviceId) {
+        return userRepository.findById(id)
+                .<ResponseEntity<?>>map(user -> {
+                    int revoked = deviceId == null
+                            ? refreshTokenService.revokeUser(user.getEmail())
+                            : refreshTokenService.revokeDevice(user.getEmail(), deviceId);
+                    return ResponseEntity.ok("Revoked " + revoked + " session(s)");
+                })
+                .orElseGet(() -> ResponseEntity.status(404).body("User not found"));
+    }
 }
@@ -0,0 +1,425 @@
+package waiter.app.dataset;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+import waiter.app.Enums.Role;
+import waiter.app.Enums.TableStatus;
+import waiter.app.utils.Money;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk-loads synthetic menu items, tables, users, orders and order items
+ * straight through JDBC batches (multi-row inserts on MySQL with
+ * rewriteBatchedStatements), several connections in parallel, each order id
+ * range generated and committed by one worker. Orders follow a lunch and
+ * dinner peak and busier weekends; item popularity is Zipf-distributed.
+ * The same spec and seed always produce the same rows.
+ *
+ * <p>Appends to whatever is there: new order ids start above both the
+ * existing rows and the id_generators values, which are moved past the
+ * generated ids afterwards so the application keeps allocating safely.
+ * Sales rollups are not filled; rebuild them with POST /api/reports/sales/rebuild
+ * for the generated date range.
+ */
+public class DatasetGenerator {
+
+    private static final int ID_ALLOCATION_SIZE = 50; // allocationSize of the orders/order_items table generators
+    private static final int MAX_LINES = 12;
+
+    // Share of the day's orders per hour: lunch 13-15, dinner 20-23
+    private static final double[] HOUR_WEIGHTS = {
+            0.5, 0.2, 0, 0, 0, 0, 0, 0, 0.3, 1, 1.5, 2, 4, 7, 7, 4, 2, 2, 3, 5, 8, 9, 7, 3
+    };
+
+    private final DataSource dataSource;
+
+    public DatasetGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public record Result(int menuItems, int tables, int users, long orders, long orderItems, Duration elapsed) {
+    }
+
+    public Result generate(DatasetSpec spec) throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        boolean mysql;
+        try (Connection connection = dataSource.getConnection()) {
+            mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        }
+
+        int menuItems = insertMenuItems(spec);
+        int tables = insertTables(spec);
+        int users = insertUsers(spec);
+
+        Catalog catalog = loadCatalog(spec);
+        if (spec.getOrders() > 0 && (catalog.menuItemIds.length == 0 || catalog.waiters.isEmpty())) {
+            throw new IllegalStateException("Orders need at least one menu item and one waiter");
+        }
+
+        long firstOrderId = nextFreeId("orders", "orders");
+        long firstItemId = nextFreeId("order_items", "order_items");
+        // Item ids are assigned per order from a fixed-size slot, so workers never overlap
+        long itemSlots = MAX_LINES;
+
+        long orderItems = 0;
+        int workers = (int) Math.max(1, Math.min(spec.getThreads(), spec.getOrders() / spec.getBatchSize() + 1));
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Long>> results = new ArrayList<>(workers);
+            long perWorker = (spec.getOrders() + workers - 1) / workers;
+            for (int w = 0; w < workers; w++) {
+                long from = w * perWorker;
+                long to = Math.min(spec.getOrders(), from + perWorker);
+                if (from >= to) {
+                    break;
+                }
+                results.add(executor.submit(() ->
+                        insertOrders(spec, catalog, mysql, from, to, firstOrderId, firstItemId, itemSlots)));
+            }
+            for (Future<Long> result : results) {
+                orderItems += result.get();
+            }
+        } catch (java.util.concurrent.ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new IllegalStateException("Dataset generation failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (spec.getOrders() > 0) {
+            advanceIdGenerator("orders", firstOrderId + spec.getOrders());
+            advanceIdGenerator("order_items", firstItemId + spec.getOrders() * itemSlots);
+        }
+        return new Result(menuItems, tables, users, spec.getOrders(), orderItems,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    // --- reference data ---------------------------------------------------------------------
+
+    private int insertMenuItems(DatasetSpec spec) throws SQLException {
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into menu_items (name, description, price, available) values (?, ?, ?, ?)")) {
+            for (int i = 0; i < spec.getMenuItems(); i++) {
+                insert.setString(1, "Dish " + (i + 1));
+                insert.setString(2, "Generated menu item");
+                insert.setDouble(3, Money.toMajor(150 + 50L * random.nextInt(40)).doubleValue());
+                insert.setBoolean(4, true);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        return spec.getMenuItems();
+    }
+
+    private int insertTables(DatasetSpec spec) throws SQLException {
+        int first = queryLong("select coalesce(max(number), 0) from tables").intValue() + 1;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into tables (number, status, assigned_waiter, version) values (?, ?, null, 0)")) {
+            for (int i = 0; i < spec.getTables(); i++) {
+                insert.setInt(1, first + i);
+                insert.setString(2, TableStatus.AVAILABLE.name());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        return spec.getTables();
+    }
+
+    private int insertUsers(DatasetSpec spec) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select email from users where email like '%@dataset.local'")) {
+            while (rows.next()) {
+                existing.add(rows.getString(1));
+            }
+        }
+        String hash = new BCryptPasswordEncoder().encode(DatasetSpec.PASSWORD); // one hash: BCrypt is slow on purpose
+        int inserted = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into users (email, password, role, full_name) values (?, ?, ?, ?)")) {
+            for (int i = 0; i < spec.getUsers(); i++) {
+                boolean admin = i % 20 == 19;
+                String email = (admin ? "admin" : "waiter") + (i + 1) + "@dataset.local";
+                if (existing.contains(email)) {
+                    continue;
+                }
+                insert.setString(1, email);
+                insert.setString(2, hash);
+                insert.setString(3, (admin ? Role.ADMIN : Role.WAITER).name());
+                insert.setString(4, (admin ? "Admin " : "Waiter ") + (i + 1));
+                insert.addBatch();
+                inserted++;
+            }
+            insert.executeBatch();
+        }
+        return inserted;
+    }
+
+    // Menu items with their prices in popularity order, and the waiters orders are assigned to
+    private record Catalog(long[] menuItemIds, long[] menuPricesMinor, double[] popularityCdf, List<String> waiters) {
+    }
+
+    private Catalog loadCatalog(DatasetSpec spec) throws SQLException {
+        List<long[]> menu = new ArrayList<>();
+        List<String> waiters = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rows = statement.executeQuery("select id, price from menu_items where available = true order by id")) {
+                while (rows.next()) {
+                    menu.add(new long[]{rows.getLong(1), Money.toMinor(rows.getDouble(2))});
+                }
+            }
+            try (ResultSet rows = statement.executeQuery("select email from users where role = 'WAITER' order by id")) {
+                while (rows.next()) {
+                    waiters.add(rows.getString(1));
+                }
+            }
+        }
+        // Popularity rank is a seeded shuffle of the menu, so "dish 1" is not always the favourite
+        SplittableRandom random = new SplittableRandom(spec.getSeed() ^ 0x5DEECE66DL);
+        for (int i = menu.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long[] swap = menu.get(i);
+            menu.set(i, menu.get(j));
+            menu.set(j, swap);
+        }
+        long[] ids = new long[menu.size()];
+        long[] prices = new long[menu.size()];
+        double[] cdf = new double[menu.size()];
+        double sum = 0;
+        for (int rank = 0; rank < menu.size(); rank++) {
+            ids[rank] = menu.get(rank)[0];
+            prices[rank] = menu.get(rank)[1];
+            sum += 1 / Math.pow(rank + 1, spec.getMenuSkew());
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < cdf.length; rank++) {
+            cdf[rank] /= sum;
+        }
+        return new Catalog(ids, prices, cdf, waiters);
+    }
+
+    // --- orders -----------------------------------------------------------------------------
+
+    private long insertOrders(DatasetSpec spec, Catalog catalog, boolean mysql, long from, long to,
+                              long firstOrderId, long firstItemId, long itemSlots) throws SQLException {
+        double[] dayCdf = dayCdf(spec);
+        double[] hourCdf = cdf(HOUR_WEIGHTS);
+        LocalDate firstDay = spec.getLastDay().minusDays(spec.getDays() - 1L);
+        long items = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            if (mysql) {
+                try (Statement statement = connection.createStatement()) {
+                    // Consistent by construction; skip per-row checks for this session only
+                    statement.execute("set foreign_key_checks = 0, unique_checks = 0");
+                }
+            }
+            try (PreparedStatement orders = connection.prepareStatement(
+                    "insert into orders (id, created_at, status, waiter_username, payment_method, paid_at, " +
+                            "total_amount_minor, refunded_by, refund_reason, refunded_at, version) " +
+                            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)");
+                 PreparedStatement lines = connection.prepareStatement(
+                         "insert into order_items (id, quantity, comments, unit_price_minor, order_id, menu_item_id) " +
+                                 "values (?, ?, ?, ?, ?, ?)")) {
+
+                int[] ranks = new int[MAX_LINES];
+                for (long n = from; n < to; n++) {
+                    // One stream per order: the result does not depend on the number of threads
+                    SplittableRandom random = new SplittableRandom(spec.getSeed() * 0x9E3779B97F4A7C15L + n);
+                    long orderId = firstOrderId + n;
+
+                    LocalDate day = firstDay.plusDays(pick(dayCdf, random.nextDouble()));
+                    LocalDateTime createdAt = day.atTime(pick(hourCdf, random.nextDouble()), random.nextInt(60), random.nextInt(60));
+                    OrderStatus status = status(random, day.equals(spec.getLastDay()));
+
+                    int lineCount = lineCount(random, spec.getItemsPerOrder(), catalog.menuItemIds.length);
+                    long total = 0;
+                    for (int line = 0; line < lineCount; line++) {
+                        int rank;
+                        do {
+                            rank = pick(catalog.popularityCdf, random.nextDouble());
+                        } while (contains(ranks, line, rank));
+                        ranks[line] = rank;
+
+                        int quantity = random.nextInt(10) < 7 ? 1 : random.nextInt(3) == 0 ? 3 : 2;
+                        long price = catalog.menuPricesMinor[rank];
+                        total += price * quantity;
+
+                        lines.setLong(1, firstItemId + n * itemSlots + line);
+                        lines.setInt(2, quantity);
+                        lines.setString(3, random.nextInt(15) == 0 ? "no ice" : null);
+                        lines.setLong(4, price);
+                        lines.setLong(5, orderId);
+                        lines.setLong(6, catalog.menuItemIds[rank]);
+                        lines.addBatch();
+                    }
+                    items += lineCount;
+
+                    boolean paid = status == OrderStatus.PAID || status == OrderStatus.REFUNDED;
+                    LocalDateTime paidAt = paid ? createdAt.plusMinutes(20 + random.nextInt(70)) : null;
+                    orders.setLong(1, orderId);
+                    orders.setObject(2, createdAt);
+                    orders.setString(3, status.name());
+                    orders.setString(4, catalog.waiters.get(random.nextInt(catalog.waiters.size())));
+                    orders.setString(5, paid ? (random.nextInt(100) < 65 ? PaymentMethod.CARD : PaymentMethod.CASH).name() : null);
+                    orders.setObject(6, paidAt);
+                    orders.setLong(7, total);
+                    orders.setString(8, status == OrderStatus.REFUNDED ? "admin20@dataset.local" : null);
+                    orders.setString(9, status == OrderStatus.REFUNDED ? "Generated refund" : null);
+                    orders.setObject(10, status == OrderStatus.REFUNDED ? paidAt.plusMinutes(5 + random.nextInt(30)) : null);
+                    orders.addBatch();
+
+                    if ((n - from + 1) % spec.getBatchSize() == 0 || n == to - 1) {
+                        orders.executeBatch(); // parents first
+                        lines.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    private static OrderStatus status(SplittableRandom random, boolean today) {
+        int roll = random.nextInt(100);
+        if (today && roll < 30) {
+            return roll < 10 ? OrderStatus.NEW : roll < 20 ? OrderStatus.IN_PROGRESS : OrderStatus.READY;
+        }
+        return roll < 93 ? OrderStatus.PAID : roll < 98 ? OrderStatus.CANCELLED : OrderStatus.REFUNDED;
+    }
+
+    // 1..max lines, binomial around the requested mean
+    private static int lineCount(SplittableRandom random, double mean, int menuSize) {
+        int max = Math.min(MAX_LINES, menuSize);
+        double p = Math.min(1, Math.max(0, (mean - 1) / (max - 1)));
+        int count = 1;
+        for (int i = 1; i < max; i++) {
+            if (random.nextDouble() < p) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Fridays and Saturdays are twice as busy as Mondays
+    private static double[] dayCdf(DatasetSpec spec) {
+        double[] weights = new double[spec.getDays()];
+        LocalDate day = spec.getLastDay().minusDays(spec.getDays() - 1L);
+        for (int i = 0; i < weights.length; i++, day = day.plusDays(1)) {
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            weights[i] = switch (dayOfWeek) {
+                case MONDAY -> 1.0;
+                case TUESDAY, WEDNESDAY -> 1.1;
+                case THURSDAY, SUNDAY -> 1.4;
+                case FRIDAY, SATURDAY -> 2.0;
+            };
+        }
+        return cdf(weights);
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        index = index >= 0 ? index : -index - 1;
+        // Never land on a zero-weight slot at the end of a run of equal values
+        while (index > 0 && cdf[index - 1] == cdf[index] && cdf[index - 1] >= u) {
+            index--;
+        }
+        return Math.min(index, cdf.length - 1);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- ids --------------------------------------------------------------------------------
+
+    // Above existing rows and above any block the application may already hold in memory
+    private long nextFreeId(String table, String generator) throws SQLException {
+        long maxId = queryLong("select coalesce(max(id), 0) from " + table);
+        Long nextVal = queryLongOrNull("select next_val from id_generators where gen_name = '" + generator + "'");
+        return Math.max(maxId, nextVal == null ? 0 : nextVal) + ID_ALLOCATION_SIZE + 1;
+    }
+
+    private void advanceIdGenerator(String generator, long firstUnusedId) throws SQLException {
+        long next = firstUnusedId + ID_ALLOCATION_SIZE;
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "update id_generators set next_val = ? where gen_name = ? and next_val < ?")) {
+                update.setLong(1, next);
+                update.setString(2, generator);
+                update.setLong(3, next);
+                if (update.executeUpdate() > 0 || queryLongOrNull(
+                        "select next_val from id_generators where gen_name = '" + generator + "'") != null) {
+                    return;
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into id_generators (gen_name, next_val) values (?, ?)")) {
+                insert.setString(1, generator);
+                insert.setLong(2, next);
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    private Long queryLong(String sql) throws SQLException {
+        Long value = queryLongOrNull(sql);
+        return value == null ? 0L : value;
+    }
+
+    private Long queryLongOrNull(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            return rows.next() ? rows.getObject(1, Long.class) : null;
+        }
+    }
+}
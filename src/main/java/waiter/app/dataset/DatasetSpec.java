@@ -0,0 +1,27 @@
+package waiter.app.dataset;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+// Shape and size of a generated dataset; the defaults are a mid-sized restaurant
+@Value
+@Builder(toBuilder = true)
+public class DatasetSpec {
+
+    @Builder.Default int menuItems = 50;
+    @Builder.Default int tables = 100;
+    @Builder.Default int users = 200;          // about 1 in 20 is an admin, the rest waiters
+    @Builder.Default long orders = 100_000;
+    @Builder.Default double itemsPerOrder = 6; // mean lines per order, 1..12
+    @Builder.Default int days = 365;           // orders spread over the days up to and including lastDay
+    @Builder.Default LocalDate lastDay = LocalDate.now();
+    @Builder.Default double menuSkew = 1.1;    // Zipf exponent of item popularity
+    @Builder.Default long seed = 1;
+    @Builder.Default int threads = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    @Builder.Default int batchSize = 2_000;    // orders per JDBC batch and commit
+
+    // Password of every generated user
+    public static final String PASSWORD = "dataset-password";
+}
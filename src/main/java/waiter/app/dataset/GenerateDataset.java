@@ -0,0 +1,67 @@
+package waiter.app.dataset;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import waiter.app.PdaApplication;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Fills the configured database with a synthetic dataset. Boots the
+ * application without the web server (so the schema is created or updated
+ * as usual) and hands its DataSource to {@link DatasetGenerator}.
+ *
+ * <pre>
+ * ./gradlew generateDataset -Pdataset.orders=10000000 -Pdataset.users=200 -Pdataset.threads=8
+ * </pre>
+ *
+ * Other keys: menuItems, tables, itemsPerOrder, days, lastDay (yyyy-MM-dd),
+ * menuSkew, seed, batchSize. Any Spring property can be passed as an
+ * argument, e.g. --spring.profiles.active=test or --MYSQL_DB=pda_scale.
+ */
+public final class GenerateDataset {
+
+    private GenerateDataset() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetSpec defaults = DatasetSpec.builder().build();
+        DatasetSpec spec = DatasetSpec.builder()
+                .menuItems(Integer.getInteger("dataset.menuItems", defaults.getMenuItems()))
+                .tables(Integer.getInteger("dataset.tables", defaults.getTables()))
+                .users(Integer.getInteger("dataset.users", defaults.getUsers()))
+                .orders(Long.getLong("dataset.orders", defaults.getOrders()))
+                .itemsPerOrder(Double.parseDouble(System.getProperty("dataset.itemsPerOrder",
+                        String.valueOf(defaults.getItemsPerOrder()))))
+                .days(Integer.getInteger("dataset.days", defaults.getDays()))
+                .lastDay(LocalDate.parse(System.getProperty("dataset.lastDay", defaults.getLastDay().toString())))
+                .menuSkew(Double.parseDouble(System.getProperty("dataset.menuSkew", String.valueOf(defaults.getMenuSkew()))))
+                .seed(Long.getLong("dataset.seed", defaults.getSeed()))
+                .threads(Integer.getInteger("dataset.threads", defaults.getThreads()))
+                .batchSize(Integer.getInteger("dataset.batchSize", defaults.getBatchSize()))
+                .build();
+
+        // Command-line arguments, unlike default properties, override application.properties
+        String[] arguments = Stream.concat(Stream.of("--pda.archive.enabled=false", "--pda.journal.enabled=false"),
+                Arrays.stream(args)).toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PdaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments);
+        try {
+            System.out.printf("Generating %s%n", spec);
+            DatasetGenerator.Result result = new DatasetGenerator(context.getBean(DataSource.class)).generate(spec);
+            long seconds = Math.max(1, result.elapsed().toSeconds());
+            System.out.printf("Inserted %d menu items, %d tables, %d users, %d orders, %d order items in %d s (%d rows/s)%n",
+                    result.menuItems(), result.tables(), result.users(), result.orders(), result.orderItems(),
+                    result.elapsed().toSeconds(), (result.orders() + result.orderItems()) / seconds);
+            System.out.println("Users sign in with password '" + DatasetSpec.PASSWORD + "'; "
+                    + "rebuild sales reports with POST /api/reports/sales/rebuild?from=&to=");
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package waiter.app.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 public class AuthRequest {
 
@@ -12,6 +13,10 @@ public class AuthRequest {
     @NotBlank(message = "Password is required")
     private String password;
 
+    // Stable id of the PDA; its refresh token replaces any earlier one for the same device
+    @Size(max = 64, message = "Device id must be at most 64 characters")
+    private String deviceId;
+
     // Getters
     public String getEmail() {
         return email;
@@ -19,6 +24,9 @@ public class AuthRequest {
     public String getPassword() {
         return password;
     }
+    public String getDeviceId() {
+        return deviceId;
+    }
 
     // Setters
     public void setEmail(String email) {
@@ -27,4 +35,7 @@ public class AuthRequest {
     public void setPassword(String password) {
         this.password = password;
     }
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
 }
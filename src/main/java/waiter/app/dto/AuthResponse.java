@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class AuthResponse {
 
-    private String token;
+    private String token;        // access token (JWT)
     private String role;
+    private String refreshToken; // exchange at /api/auth/refresh; each one works once
+    private long expiresIn;      // access token lifetime in seconds
 }
@@ -0,0 +1,18 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.BulkStatusOutcome;
+import waiter.app.Enums.OrderStatus;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkStatusResultDto {
+
+    private Long orderId;
+    private BulkStatusOutcome outcome;
+    private OrderStatus status; // status after the batch (null if not found)
+    private String message;
+}
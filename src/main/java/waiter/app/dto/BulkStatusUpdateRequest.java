@@ -0,0 +1,35 @@
+package waiter.app.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Either orderIds + status (same target for all) or a mixed list of
+ * transitions; both may be combined.
+ */
+@Data
+public class BulkStatusUpdateRequest {
+
+    private List<Long> orderIds;
+
+    private OrderStatus status;
+
+    private List<@Valid StatusChange> transitions;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StatusChange {
+        @NotNull(message = "Order ID is required")
+        private Long orderId;
+
+        @NotNull(message = "Target status is required")
+        private OrderStatus status;
+    }
+}
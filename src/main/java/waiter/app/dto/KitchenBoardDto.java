@@ -0,0 +1,16 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KitchenBoardDto {
+
+    private long version; // changes whenever a ticket is added, changed or removed
+    private List<KitchenTicketDto> tickets; // oldest first
+}
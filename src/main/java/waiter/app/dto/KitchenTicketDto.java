@@ -0,0 +1,26 @@
+package waiter.app.dto;
+
+import lombok.Value;
+import waiter.app.Enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Immutable: the kitchen board hands the same instances to every reader
+@Value
+public class KitchenTicketDto {
+
+    Long orderId;
+    LocalDateTime createdAt;
+    OrderStatus status;
+    String waiterUsername;
+    List<Line> items;
+
+    @Value
+    public static class Line {
+        Long menuItemId;
+        String menuItemName;
+        int quantity;
+        String comments;
+    }
+}
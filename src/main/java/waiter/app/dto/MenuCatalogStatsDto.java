@@ -0,0 +1,19 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuCatalogStatsDto {
+
+    private long version;
+    private LocalDateTime builtAt;
+    private int items;
+    private long hits;
+    private long misses;
+}
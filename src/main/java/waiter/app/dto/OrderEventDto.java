@@ -0,0 +1,24 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.OrderEventType;
+import waiter.app.Enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderEventDto {
+
+    private long eventId;
+    private OrderEventType type;
+    private Long orderId;
+    private OrderStatus status;
+    private String waiterUsername;
+    private Long menuItemId;
+    private int quantity;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,30 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+
+import java.time.LocalDateTime;
+
+// One order line as exported for accounting; line fields are null for an order without lines
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderExportRow {
+
+    private Long orderId;
+    private LocalDateTime createdAt;
+    private OrderStatus status;
+    private String waiterUsername;
+    private PaymentMethod paymentMethod;
+    private LocalDateTime paidAt;
+    private LocalDateTime refundedAt;
+    private Long totalAmountMinor;
+    private Long lineId;
+    private Long menuItemId;
+    private String menuItemName;
+    private Integer quantity;
+    private Long unitPriceMinor;
+}
@@ -0,0 +1,18 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.OrderStatus;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderItemDeltaDto {
+
+    private Long orderId;
+    private Long menuItemId;
+    private int quantity;          // resulting line quantity (0 = line removed)
+    private long orderTotalMinor;  // resulting order total in minor units
+    private OrderStatus status;
+}
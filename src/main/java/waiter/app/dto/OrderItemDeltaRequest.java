@@ -0,0 +1,17 @@
+package waiter.app.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class OrderItemDeltaRequest {
+    @NotNull(message = "Menu item ID is required")
+    private Long menuItemId;
+
+    @NotNull(message = "Delta is required")
+    private Integer delta; // +n adds, -n removes; a line reaching 0 is deleted
+
+    @Size(max = 255, message = "Comments cannot exceed 255 characters")
+    private String comments; // used only when a new line is created
+}
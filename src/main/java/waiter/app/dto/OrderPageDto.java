@@ -0,0 +1,17 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPageDto {
+
+    private List<OrderDto> items;
+
+    private String nextCursor; // null when there are no more pages
+}
@@ -0,0 +1,23 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Every field is optional; null means "no filter"
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSearchCriteria {
+
+    private Set<OrderStatus> statuses;
+    private String waiterUsername;
+    private LocalDateTime createdFrom; // inclusive
+    private LocalDateTime createdTo;   // exclusive
+    private Long minAmountMinor;
+    private Long maxAmountMinor;
+}
@@ -0,0 +1,25 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.RollupDimension;
+
+import java.time.LocalDateTime;
+
+// Amounts in minor units (cents)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesRollupDto {
+
+    private LocalDateTime bucketStart;
+    private RollupDimension dimension;
+    private String key;
+    private long orderCount;
+    private long itemQuantity;
+    private long revenueMinor;
+    private long refundCount;
+    private long refundedMinor;
+    private long netMinor;
+}
@@ -0,0 +1,62 @@
+package waiter.app.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.SyncOperationType;
+
+import java.util.List;
+
+/**
+ * Operations a PDA queued while offline, in the order it performed them.
+ * Orders created offline are referred to by clientOrderRef until the
+ * server id is known; existing orders by orderId.
+ */
+@Data
+public class SyncBatchRequest {
+
+    @NotBlank(message = "Device ID is required")
+    @Size(max = 64, message = "Device ID cannot exceed 64 characters")
+    private String deviceId;
+
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid Operation> operations;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Operation {
+        @NotNull(message = "Client sequence number is required")
+        private Long clientSeq;
+
+        @NotNull(message = "Operation type is required")
+        private SyncOperationType type;
+
+        private Long orderId;
+
+        @Size(max = 64, message = "Client order reference cannot exceed 64 characters")
+        private String clientOrderRef;
+
+        // CREATE_ORDER
+        private List<@Valid OrderItemDto> items;
+
+        // ADD_ITEM / REMOVE_ITEM
+        private Long menuItemId;
+
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+
+        @Size(max = 255, message = "Comments cannot exceed 255 characters")
+        private String comments;
+
+        // CHANGE_STATUS
+        private OrderStatus status;
+    }
+}
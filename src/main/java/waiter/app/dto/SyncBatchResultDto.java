@@ -0,0 +1,17 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncBatchResultDto {
+
+    private boolean committed;
+    private List<SyncOperationResultDto> results;
+    private List<OrderDto> orders; // current state of every order the batch referred to
+}
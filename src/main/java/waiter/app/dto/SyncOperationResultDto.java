@@ -0,0 +1,17 @@
+package waiter.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.SyncOutcome;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncOperationResultDto {
+
+    private Long clientSeq;
+    private SyncOutcome outcome;
+    private Long orderId; // server id of the order the operation touched (null if unknown)
+    private String message;
+}
@@ -0,0 +1,55 @@
+package waiter.app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Closed order moved out of `orders` by OrderArchiveService; read-only
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_created_at_id", columnList = "created_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+
+    // Same id as the order had in `orders`
+    @Id
+    private Long id;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private String waiterUsername;
+
+    @OneToMany(mappedBy = "order")
+    private List<ArchivedOrderItem> items;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "paid_at")
+    private LocalDateTime paidAt;
+
+    @Column(name = "total_amount_minor", nullable = false)
+    private long totalAmountMinor;
+
+    private String refundedBy;
+
+    private String refundReason;
+
+    private LocalDateTime refundedAt;
+
+    private long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,37 @@
+package waiter.app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "order_items_archive", indexes = {
+        @Index(name = "idx_order_items_archive_order_id", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    private int quantity;
+
+    private String comments;
+
+    @Column(name = "unit_price_minor", nullable = false)
+    private long unitPriceMinor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ArchivedOrder order;
+
+    // Plain columns: the menu item may be renamed or deleted after archiving
+    @Column(name = "menu_item_id")
+    private Long menuItemId;
+
+    @Column(name = "menu_item_name")
+    private String menuItemName;
+}
@@ -0,0 +1,39 @@
+package waiter.app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    // SHA-256 of principal + Idempotency-Key, so keys are scoped per user
+    @Id
+    @Column(name = "scoped_key", length = 64)
+    private String scopedKey;
+
+    // SHA-256 of method, path, query string and body hash; a key reused for another request is rejected
+    @Column(name = "request_fingerprint", nullable = false, length = 64)
+    private String requestFingerprint;
+
+    // 0 while the original request is still running
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
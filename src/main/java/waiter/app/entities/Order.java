@@ -9,7 +9,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        // Search: status filters, and each waiter's own orders ("my open orders")
+        @Index(name = "idx_orders_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_orders_waiter_status_created_at_id", columnList = "waiter_username, status, created_at, id"),
+        @Index(name = "idx_orders_paid_at", columnList = "paid_at"),
+        @Index(name = "idx_orders_refunded_at", columnList = "refunded_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,9 +24,12 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_id_gen")
+    @TableGenerator(name = "order_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "orders", allocationSize = 50)
     private Long id;
 
+    @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Enumerated(EnumType.STRING)
@@ -33,11 +43,32 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private PaymentMethod paymentMethod;
 
-    private Double totalAmount;
+    // Sales rollups bucket the payment by this time
+    @Column(name = "paid_at")
+    private LocalDateTime paidAt;
+
+    // Minor units (cents); kept up to date as lines are added or removed
+    @Column(name = "total_amount_minor", nullable = false)
+    private long totalAmountMinor;
 
     private String refundedBy;
 
     private String refundReason;
 
     private LocalDateTime refundedAt;
+
+    // Bumped on every change; also the ETag of GET /api/orders/{id}
+    @Version
+    private long version;
+
+    // Sum of the lines at the prices they were ordered at
+    public long computeTotalAmountMinor() {
+        long total = 0L;
+        if (items != null) {
+            for (OrderItem item : items) {
+                total += item.getUnitPriceMinor() * item.getQuantity();
+            }
+        }
+        return total;
+    }
 }
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", uniqueConstraints = {
+        // One line per menu item per order; quantity deltas rely on it
+        @UniqueConstraint(name = "uk_order_items_order_menu_item", columnNames = {"order_id", "menu_item_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,18 +15,24 @@ import lombok.*;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id_gen")
+    @TableGenerator(name = "order_item_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "order_items", allocationSize = 50)
     private Long id;
 
     private int quantity;
 
     private String comments; // <-- Σωστό όνομα
 
-    @ManyToOne
+    // Menu price at the time the line was created, in minor units (cents)
+    @Column(name = "unit_price_minor", nullable = false)
+    private long unitPriceMinor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "menu_item_id")
     private MenuItem menuItem;
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package waiter.app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import waiter.app.Enums.RefreshTokenRevocation;
+
+import java.time.LocalDateTime;
+
+// One row per issued refresh token; only its SHA-256 is stored
+@Entity
+@Table(name = "refresh_tokens", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_refresh_tokens_hash", columnNames = "token_hash")
+}, indexes = {
+        @Index(name = "idx_refresh_tokens_user_device", columnList = "username, device_id"),
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "device_id", nullable = false, length = 64)
+    private String deviceId;
+
+    // Shared by every token rotated from the same login
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "revoked_reason", length = 20)
+    private RefreshTokenRevocation revokedReason;
+
+    // Token issued when this one was rotated; a retry within the grace window replaces it
+    @Column(name = "replaced_by_id")
+    private Long replacedById;
+}
@@ -0,0 +1,33 @@
+package waiter.app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Pre-aggregated sales per hour/day and dimension; written by SalesRollupService only
+@Entity
+@Table(name = "sales_rollups", indexes = {
+        @Index(name = "idx_sales_rollups_lookup", columnList = "bucket_type, dimension, bucket_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+
+    @EmbeddedId
+    private SalesRollupId id;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "item_quantity", nullable = false)
+    private long itemQuantity;
+
+    @Column(name = "revenue_minor", nullable = false)
+    private long revenueMinor;
+
+    @Column(name = "refund_count", nullable = false)
+    private long refundCount;
+
+    @Column(name = "refunded_minor", nullable = false)
+    private long refundedMinor;
+}
@@ -0,0 +1,36 @@
+package waiter.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import waiter.app.Enums.RollupBucket;
+import waiter.app.Enums.RollupDimension;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bucket_type", length = 8)
+    private RollupBucket bucketType;
+
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", length = 16)
+    private RollupDimension dimension;
+
+    // "" for TOTAL (part of the primary key, so never null)
+    @Column(name = "dimension_key", length = 100)
+    private String dimensionKey;
+}
@@ -0,0 +1,53 @@
+package waiter.app.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import waiter.app.Enums.SyncOperationType;
+
+import java.time.LocalDateTime;
+
+// One row per offline operation applied by /api/orders/sync, so a replayed batch is not applied twice.
+// Keyed by user as well as device: device ids are chosen by the client and need not be unique.
+@Entity
+@Table(name = "sync_applied_ops", uniqueConstraints = {
+        @UniqueConstraint(name = SyncAppliedOp.DEVICE_SEQ_CONSTRAINT,
+                columnNames = {"username", "device_id", "client_seq"})
+}, indexes = {
+        @Index(name = "idx_sync_applied_ops_user_device_ref", columnList = "username, device_id, client_order_ref"),
+        @Index(name = "idx_sync_applied_ops_applied_at", columnList = "applied_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncAppliedOp {
+
+    public static final String DEVICE_SEQ_CONSTRAINT = "uk_sync_applied_ops_user_device_seq";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "device_id", nullable = false, length = 64)
+    private String deviceId;
+
+    @Column(name = "client_seq", nullable = false)
+    private long clientSeq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SyncOperationType type;
+
+    // The device's local name for an order it created offline
+    @Column(name = "client_order_ref", length = 64)
+    private String clientOrderRef;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -22,4 +22,7 @@ public class Tables {
     private TableStatus status;
 
     private String assignedWaiter;
+
+    @Version
+    private long version;
 }
@@ -0,0 +1,22 @@
+package waiter.app.events;
+
+import lombok.Value;
+import waiter.app.Enums.OrderEventType;
+import waiter.app.Enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService for every order mutation. Listeners that need
+ * committed state use @TransactionalEventListener(phase = AFTER_COMMIT).
+ */
+@Value
+public class OrderChangedEvent {
+    Long orderId;
+    OrderEventType type;
+    OrderStatus status;
+    String waiterUsername;
+    Long menuItemId; // item events only
+    int quantity;    // item events only
+    LocalDateTime occurredAt;
+}
@@ -2,6 +2,7 @@ package waiter.app.exceptions;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -49,6 +50,14 @@ public class GlobalExceptionHandler {
                 .body(errors);
     }
 
+    // 🔸 Concurrent or invalid state change (π.χ. δύο σερβιτόροι πληρώνουν την ίδια παραγγελία)
+    @ExceptionHandler({OrderConflictException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<String> handleConflict(RuntimeException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ex.getMessage());
+    }
+
     // 🔸 Catch-all (fallback)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleAllExceptions(Exception ex) {
@@ -0,0 +1,12 @@
+package waiter.app.exceptions;
+
+/**
+ * The order exists but is not in a state that allows the requested change
+ * (e.g. another waiter paid it first). Mapped to HTTP 409.
+ */
+public class OrderConflictException extends RuntimeException {
+
+    public OrderConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,225 @@
+package waiter.app.journal;
+
+import waiter.app.Enums.JournalEntryType;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of the order journal.
+ * <pre>
+ * segment = header record* 0x00000000 (zero fill)
+ * header  = magic:int formatVersion:short reserved:short firstSequence:long
+ * record  = bodyLength:int crc32(body):int body
+ * body    = sequence:long recordedAtMillis:long type:byte orderId:long status:byte payload
+ * </pre>
+ * Enums are stored by ordinal (-1 = null), strings as unsigned-short length
+ * (0xFFFF = null) followed by UTF-8 bytes. The payload depends on the type:
+ * CREATED waiter:string total:long lineCount:short (menuItemId:long quantity:int unitPrice:long)*,
+ * ITEM_* menuItemId:long quantity:int unitPrice:long, PAID method:byte amount:long,
+ * REFUNDED actor:string reason:string amount:long, DELETED actor:string.
+ */
+final class JournalCodec {
+
+    static final int MAGIC = 0x4F4A524E; // "OJRN"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_OVERHEAD = 8; // length + crc
+
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int MAX_STRING_BYTES = 0xFFFE;
+
+    private JournalCodec() {
+    }
+
+    static void writeHeader(ByteBuffer segment, long firstSequence) {
+        segment.putInt(0, MAGIC);
+        segment.putShort(4, FORMAT_VERSION);
+        segment.putShort(6, (short) 0);
+        segment.putLong(8, firstSequence);
+    }
+
+    // Returns the first sequence of the segment, or throws if it is not a journal segment
+    static long readHeader(ByteBuffer segment) {
+        if (segment.capacity() < HEADER_SIZE || segment.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not an order journal segment");
+        }
+        if (segment.getShort(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported order journal format " + segment.getShort(4));
+        }
+        return segment.getLong(8);
+    }
+
+    /**
+     * Encodes a complete record (length, crc, body) into out, which is cleared
+     * first and flipped for reading afterwards. Returns a larger buffer when out
+     * was too small.
+     */
+    static ByteBuffer encode(OrderJournalEntry entry, long sequence, long recordedAtMillis, ByteBuffer out) {
+        int needed = RECORD_OVERHEAD + maxBodySize(entry);
+        if (out.capacity() < needed) {
+            out = ByteBuffer.allocate(Math.max(needed, out.capacity() * 2));
+        }
+        out.clear();
+        out.position(RECORD_OVERHEAD);
+        out.putLong(sequence);
+        out.putLong(recordedAtMillis);
+        out.put((byte) entry.getType().ordinal());
+        out.putLong(entry.getOrderId());
+        out.put(ordinal(entry.getStatus()));
+        switch (entry.getType()) {
+            case CREATED -> {
+                putString(out, entry.getWaiterUsername());
+                out.putLong(entry.getAmountMinor());
+                out.putShort((short) entry.getLines().size());
+                for (OrderJournalEntry.Line line : entry.getLines()) {
+                    out.putLong(line.getMenuItemId());
+                    out.putInt(line.getQuantity());
+                    out.putLong(line.getUnitPriceMinor());
+                }
+            }
+            case ITEM_ADDED, ITEM_REMOVED -> {
+                out.putLong(entry.getMenuItemId());
+                out.putInt(entry.getQuantity());
+                out.putLong(entry.getAmountMinor());
+            }
+            case PAID -> {
+                out.put(ordinal(entry.getPaymentMethod()));
+                out.putLong(entry.getAmountMinor());
+            }
+            case REFUNDED -> {
+                putString(out, entry.getActor());
+                putString(out, entry.getNote());
+                out.putLong(entry.getAmountMinor());
+            }
+            case DELETED -> putString(out, entry.getActor());
+            case STATUS_CHANGED -> {
+            }
+        }
+        int bodyLength = out.position() - RECORD_OVERHEAD;
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), out.arrayOffset() + RECORD_OVERHEAD, bodyLength);
+        out.putInt(0, bodyLength);
+        out.putInt(4, (int) crc.getValue());
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Reads the record at segment[position]. Returns null at the end of the
+     * written data: a zero length, a length past the end of the segment or a
+     * checksum mismatch (torn write).
+     */
+    static JournalRecord decode(ByteBuffer segment, int position) {
+        if (position + RECORD_OVERHEAD > segment.limit()) {
+            return null;
+        }
+        int bodyLength = segment.getInt(position);
+        if (bodyLength <= 0 || position + RECORD_OVERHEAD + bodyLength > segment.limit()) {
+            return null;
+        }
+        ByteBuffer body = segment.duplicate();
+        body.limit(position + RECORD_OVERHEAD + bodyLength).position(position + RECORD_OVERHEAD);
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != segment.getInt(position + 4)) {
+            return null;
+        }
+
+        long sequence = body.getLong();
+        long recordedAt = body.getLong();
+        JournalEntryType type = JournalEntryType.values()[body.get()];
+        long orderId = body.getLong();
+        OrderStatus status = enumAt(OrderStatus.values(), body.get());
+
+        String waiter = null;
+        Long menuItemId = null;
+        int quantity = 0;
+        long amount = 0;
+        PaymentMethod method = null;
+        String actor = null;
+        String note = null;
+        List<OrderJournalEntry.Line> lines = List.of();
+        switch (type) {
+            case CREATED -> {
+                waiter = getString(body);
+                amount = body.getLong();
+                int count = Short.toUnsignedInt(body.getShort());
+                lines = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    lines.add(new OrderJournalEntry.Line(body.getLong(), body.getInt(), body.getLong()));
+                }
+            }
+            case ITEM_ADDED, ITEM_REMOVED -> {
+                menuItemId = body.getLong();
+                quantity = body.getInt();
+                amount = body.getLong();
+            }
+            case PAID -> {
+                method = enumAt(PaymentMethod.values(), body.get());
+                amount = body.getLong();
+            }
+            case REFUNDED -> {
+                actor = getString(body);
+                note = getString(body);
+                amount = body.getLong();
+            }
+            case DELETED -> actor = getString(body);
+            case STATUS_CHANGED -> {
+            }
+        }
+        OrderJournalEntry entry = new OrderJournalEntry(type, orderId, status, waiter, menuItemId, quantity, amount,
+                method, actor, note, lines);
+        return new JournalRecord(sequence, Instant.ofEpochMilli(recordedAt), entry);
+    }
+
+    static int recordSize(ByteBuffer segment, int position) {
+        return RECORD_OVERHEAD + segment.getInt(position);
+    }
+
+    // Upper bound, strings counted at their maximum encoded length
+    private static int maxBodySize(OrderJournalEntry entry) {
+        return 8 + 8 + 1 + 8 + 1 + 8 + 4 + 8 + 2
+                + stringSize(entry.getWaiterUsername()) + stringSize(entry.getActor()) + stringSize(entry.getNote())
+                + entry.getLines().size() * 20;
+    }
+
+    private static int stringSize(String value) {
+        return 2 + (value == null ? 0 : Math.min(MAX_STRING_BYTES, value.length() * 3));
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        out.putShort((short) length);
+        out.put(bytes, 0, length);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? -1 : (byte) value.ordinal();
+    }
+
+    private static <E extends Enum<E>> E enumAt(E[] values, byte ordinal) {
+        return ordinal < 0 || ordinal >= values.length ? null : values[ordinal];
+    }
+}
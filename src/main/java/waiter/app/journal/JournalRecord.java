@@ -0,0 +1,13 @@
+package waiter.app.journal;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+// An entry as read back from the journal
+@Value
+public class JournalRecord {
+    long sequence;
+    Instant recordedAt;
+    OrderJournalEntry entry;
+}
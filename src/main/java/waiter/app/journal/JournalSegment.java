@@ -0,0 +1,142 @@
+package waiter.app.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * One pre-allocated, memory-mapped journal file. The unwritten tail is zero
+ * filled, so the first zero length marks the end of the data.
+ */
+final class JournalSegment implements AutoCloseable {
+
+    private static final String PREFIX = "orders-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long firstSequence;
+    private long lastSequence;
+
+    private JournalSegment(Path path, FileChannel channel, MappedByteBuffer buffer, long firstSequence, long lastSequence) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.firstSequence = firstSequence;
+        this.lastSequence = lastSequence;
+    }
+
+    static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        JournalCodec.writeHeader(buffer, firstSequence);
+        buffer.position(JournalCodec.HEADER_SIZE);
+        return new JournalSegment(path, channel, buffer, firstSequence, firstSequence - 1);
+    }
+
+    /**
+     * Maps an existing segment for appending: positions after the last intact
+     * record and zeroes anything behind it, so a torn write from a crash can
+     * never be mistaken for data later.
+     */
+    static JournalSegment openForAppend(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        long firstSequence = JournalCodec.readHeader(buffer);
+
+        long lastSequence = firstSequence - 1;
+        int position = JournalCodec.HEADER_SIZE;
+        JournalRecord record;
+        while ((record = JournalCodec.decode(buffer, position)) != null) {
+            lastSequence = record.getSequence();
+            position += JournalCodec.recordSize(buffer, position);
+        }
+        for (int i = position; i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        buffer.position(position);
+        return new JournalSegment(path, channel, buffer, firstSequence, lastSequence);
+    }
+
+    // Segment files of a directory, oldest first
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted() // zero-padded first sequence
+                    .toList();
+        }
+    }
+
+    // Read-only pass over the intact records of a segment file
+    static void read(Path path, Consumer<JournalRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            JournalCodec.readHeader(buffer);
+            int position = JournalCodec.HEADER_SIZE;
+            JournalRecord record;
+            while ((record = JournalCodec.decode(buffer, position)) != null) {
+                consumer.accept(record);
+                position += JournalCodec.recordSize(buffer, position);
+            }
+        }
+    }
+
+    /**
+     * Copies an encoded record into the mapping. Returns false when it does not
+     * fit; at least four zero bytes always remain as the end marker.
+     */
+    boolean append(ByteBuffer record, long sequence) {
+        if (buffer.remaining() < record.remaining() + 4) {
+            return false;
+        }
+        // Body first, then the length that makes it visible to readers
+        int start = buffer.position();
+        buffer.position(start + 4);
+        record.position(4);
+        buffer.put(record);
+        buffer.putInt(start, record.getInt(0));
+        lastSequence = sequence;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return lastSequence < firstSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,183 @@
+package waiter.app.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import waiter.app.utils.AfterCommit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only history of order changes, kept next to the database rather than
+ * in it. Records go into memory-mapped, pre-allocated segment files, so an
+ * append is an encode plus a memory copy under a short lock: no system call,
+ * no allocation in the common case. The OS writes the pages back; they are
+ * also forced to disk every force-interval-ms, which bounds what a machine
+ * crash (not a process crash) can lose. Segments are never deleted here.
+ *
+ * <p>Entries are appended after the transaction commits, so rolled back
+ * changes never appear. A failed append is counted and logged but never
+ * fails the request whose change is already committed.
+ *
+ * @see OrderJournalReplay for reading it back
+ */
+@Slf4j
+@Service
+public class OrderJournal {
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+
+    // A lock rather than a monitor: rotation does file I/O, which would pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private JournalSegment segment;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private long nextSequence;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public OrderJournal(@Value("${pda.journal.enabled:true}") boolean enabled,
+                        @Value("${pda.journal.dir:data/journal}") Path directory,
+                        @Value("${pda.journal.segment-size-bytes:67108864}") int segmentSize) {
+        if (segmentSize < JournalCodec.HEADER_SIZE + 1024) {
+            throw new IllegalArgumentException("pda.journal.segment-size-bytes is too small: " + segmentSize);
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        if (enabled) {
+            open();
+        }
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = JournalSegment.list(directory);
+            if (segments.isEmpty()) {
+                segment = JournalSegment.create(directory, 1, segmentSize);
+            } else {
+                segment = JournalSegment.openForAppend(segments.get(segments.size() - 1));
+            }
+            nextSequence = segment.lastSequence() + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open order journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Records an order change once the surrounding transaction commits, or
+     * immediately when there is none.
+     */
+    public void append(OrderJournalEntry entry) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> write(entry));
+    }
+
+    private void write(OrderJournalEntry entry) {
+        JournalSegment retired = null;
+        try {
+            lock.lock();
+            try {
+                long sequence = nextSequence;
+                scratch = JournalCodec.encode(entry, sequence, System.currentTimeMillis(), scratch);
+                if (!segment.append(scratch, sequence)) {
+                    retired = rotate();
+                    if (!segment.append(scratch, sequence)) {
+                        throw new IllegalStateException("Journal record of " + scratch.remaining()
+                                + " bytes does not fit in a segment");
+                    }
+                }
+                nextSequence = sequence + 1;
+            } finally {
+                lock.unlock();
+            }
+            appended.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.error("Order journal append failed for order {} ({})", entry.getOrderId(), entry.getType(), e);
+        }
+        if (retired != null) {
+            closeRetired(retired);
+        }
+    }
+
+    /**
+     * Switches appends to a fresh segment and hands back the full one. The
+     * caller holds the lock and closes the returned segment after releasing
+     * it: closing forces the whole segment to disk, which other appends
+     * should not wait for. Returns null when nothing was swapped.
+     */
+    private JournalSegment rotate() throws IOException {
+        if (segment.isEmpty()) {
+            return null; // a fresh segment is as big as it gets
+        }
+        JournalSegment full = segment;
+        segment = JournalSegment.create(directory, nextSequence, segmentSize);
+        return full;
+    }
+
+    private void closeRetired(JournalSegment retired) {
+        try {
+            retired.close();
+        } catch (IOException e) {
+            // Its records are in the mapped pages already; the OS still writes them back
+            log.warn("Closing full journal segment failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pda.journal.force-interval-ms:1000}")
+    public void force() {
+        if (!enabled) {
+            return;
+        }
+        JournalSegment current;
+        lock.lock();
+        try {
+            current = segment;
+        } finally {
+            lock.unlock();
+        }
+        current.force(); // outside the lock: appends carry on while the pages are written back
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public long appendedCount() {
+        return appended.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            segment.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package waiter.app.journal;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import waiter.app.Enums.JournalEntryType;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+import waiter.app.entities.Order;
+
+import java.util.List;
+
+/**
+ * One thing that happened to an order. Only the fields of its type are set;
+ * the rest are null or zero.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class OrderJournalEntry {
+
+    JournalEntryType type;
+    long orderId;
+    OrderStatus status;          // status after the change, when known
+    String waiterUsername;       // CREATED
+    Long menuItemId;             // ITEM_ADDED, ITEM_REMOVED
+    int quantity;                // ITEM_ADDED, ITEM_REMOVED
+    long amountMinor;            // CREATED: total, ITEM_*: unit price, PAID/REFUNDED: amount
+    PaymentMethod paymentMethod; // PAID
+    String actor;                // REFUNDED, DELETED
+    String note;                 // REFUNDED: reason
+    List<Line> lines;            // CREATED
+
+    @Value
+    public static class Line {
+        long menuItemId;
+        int quantity;
+        long unitPriceMinor;
+    }
+
+    public static OrderJournalEntry created(Order order) {
+        List<Line> lines = order.getItems().stream()
+                .filter(item -> item.getMenuItem() != null)
+                .map(item -> new Line(item.getMenuItem().getId(), item.getQuantity(), item.getUnitPriceMinor()))
+                .toList();
+        return new OrderJournalEntry(JournalEntryType.CREATED, order.getId(), order.getStatus(), order.getWaiterUsername(),
+                null, 0, order.getTotalAmountMinor(), null, null, null, lines);
+    }
+
+    public static OrderJournalEntry itemChanged(long orderId, OrderStatus status, long menuItemId, int delta, long unitPriceMinor) {
+        return new OrderJournalEntry(delta > 0 ? JournalEntryType.ITEM_ADDED : JournalEntryType.ITEM_REMOVED, orderId,
+                status, null, menuItemId, Math.abs(delta), unitPriceMinor, null, null, null, List.of());
+    }
+
+    public static OrderJournalEntry statusChanged(long orderId, OrderStatus status) {
+        return new OrderJournalEntry(JournalEntryType.STATUS_CHANGED, orderId, status, null, null, 0, 0, null, null, null, List.of());
+    }
+
+    public static OrderJournalEntry paid(Order order) {
+        return new OrderJournalEntry(JournalEntryType.PAID, order.getId(), order.getStatus(), null, null, 0,
+                order.getTotalAmountMinor(), order.getPaymentMethod(), null, null, List.of());
+    }
+
+    public static OrderJournalEntry refunded(Order order) {
+        return new OrderJournalEntry(JournalEntryType.REFUNDED, order.getId(), order.getStatus(), null, null, 0,
+                order.getTotalAmountMinor(), null, order.getRefundedBy(), order.getRefundReason(), List.of());
+    }
+
+    public static OrderJournalEntry deleted(long orderId, String actor) {
+        return new OrderJournalEntry(JournalEntryType.DELETED, orderId, null, null, null, 0, 0, null, actor, null, List.of());
+    }
+}
@@ -0,0 +1,185 @@
+package waiter.app.journal;
+
+import lombok.Getter;
+import waiter.app.Enums.JournalEntryType;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.utils.Money;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reads the order journal back, offline or in-process. Works on a copy of the
+ * journal directory as well as on the live one (the tail still being written
+ * simply ends at the last complete record).
+ *
+ * <pre>
+ * ./gradlew replayJournal --args="data/journal open"
+ * ./gradlew replayJournal --args="data/journal order 42"
+ * ./gradlew replayJournal --args="data/journal type REFUNDED"
+ * </pre>
+ */
+public final class OrderJournalReplay {
+
+    private OrderJournalReplay() {
+    }
+
+    // Every intact record, in sequence order
+    public static void forEach(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        for (Path segment : JournalSegment.list(directory)) {
+            JournalSegment.read(segment, consumer);
+        }
+    }
+
+    public static List<JournalRecord> select(Path directory, Predicate<JournalRecord> filter) throws IOException {
+        List<JournalRecord> selected = new ArrayList<>();
+        forEach(directory, record -> {
+            if (filter.test(record)) {
+                selected.add(record);
+            }
+        });
+        return selected;
+    }
+
+    // Audit trail of one order
+    public static List<JournalRecord> history(Path directory, long orderId) throws IOException {
+        return select(directory, record -> record.getEntry().getOrderId() == orderId);
+    }
+
+    /**
+     * Folds the journal into the state of every order that is still open at its
+     * end (NEW, IN_PROGRESS, READY), oldest first.
+     */
+    public static Map<Long, ReplayedOrder> openOrders(Path directory) throws IOException {
+        Map<Long, ReplayedOrder> orders = new TreeMap<>();
+        forEach(directory, record -> {
+            OrderJournalEntry entry = record.getEntry();
+            if (entry.getType() == JournalEntryType.DELETED) {
+                orders.remove(entry.getOrderId());
+                return;
+            }
+            orders.computeIfAbsent(entry.getOrderId(), ReplayedOrder::new).apply(record);
+        });
+        orders.values().removeIf(order -> order.getStatus() == null || !order.getStatus().isOpen());
+        return orders;
+    }
+
+    /**
+     * State of one order rebuilt from its records. complete is false when the
+     * journal does not hold its CREATED record (order older than the journal),
+     * in which case the lines only reflect the changes that were journaled.
+     */
+    @Getter
+    public static final class ReplayedOrder {
+        private final long orderId;
+        private boolean complete;
+        private Instant createdAt;
+        private String waiterUsername;
+        private OrderStatus status;
+        private long totalAmountMinor;
+        private final Map<Long, Integer> quantities = new LinkedHashMap<>(); // menuItemId -> quantity
+        private long lastSequence;
+
+        private ReplayedOrder(long orderId) {
+            this.orderId = orderId;
+        }
+
+        private void apply(JournalRecord record) {
+            OrderJournalEntry entry = record.getEntry();
+            lastSequence = record.getSequence();
+            if (entry.getStatus() != null) {
+                status = entry.getStatus();
+            }
+            switch (entry.getType()) {
+                case CREATED -> {
+                    complete = true;
+                    createdAt = record.getRecordedAt();
+                    waiterUsername = entry.getWaiterUsername();
+                    totalAmountMinor = entry.getAmountMinor();
+                    quantities.clear();
+                    for (OrderJournalEntry.Line line : entry.getLines()) {
+                        quantities.merge(line.getMenuItemId(), line.getQuantity(), Integer::sum);
+                    }
+                }
+                case ITEM_ADDED -> {
+                    quantities.merge(entry.getMenuItemId(), entry.getQuantity(), Integer::sum);
+                    totalAmountMinor += entry.getAmountMinor() * entry.getQuantity();
+                }
+                case ITEM_REMOVED -> {
+                    quantities.computeIfPresent(entry.getMenuItemId(),
+                            (id, quantity) -> quantity > entry.getQuantity() ? quantity - entry.getQuantity() : null);
+                    totalAmountMinor -= entry.getAmountMinor() * entry.getQuantity();
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    public static String describe(JournalRecord record) {
+        OrderJournalEntry entry = record.getEntry();
+        StringBuilder line = new StringBuilder()
+                .append(record.getSequence()).append('\t')
+                .append(record.getRecordedAt()).append('\t')
+                .append(entry.getType()).append("\torder=").append(entry.getOrderId());
+        if (entry.getStatus() != null) {
+            line.append(" status=").append(entry.getStatus());
+        }
+        switch (entry.getType()) {
+            case CREATED -> {
+                line.append(" waiter=").append(entry.getWaiterUsername())
+                        .append(" total=").append(Money.toMajor(entry.getAmountMinor()));
+                for (OrderJournalEntry.Line item : entry.getLines()) {
+                    line.append(" item=").append(item.getMenuItemId()).append('x').append(item.getQuantity());
+                }
+            }
+            case ITEM_ADDED, ITEM_REMOVED -> line.append(" item=").append(entry.getMenuItemId())
+                    .append('x').append(entry.getQuantity())
+                    .append(" unitPrice=").append(Money.toMajor(entry.getAmountMinor()));
+            case PAID -> line.append(" method=").append(entry.getPaymentMethod())
+                    .append(" amount=").append(Money.toMajor(entry.getAmountMinor()));
+            case REFUNDED -> line.append(" by=").append(entry.getActor())
+                    .append(" amount=").append(Money.toMajor(entry.getAmountMinor()))
+                    .append(" reason=").append(entry.getNote());
+            case DELETED -> line.append(" by=").append(entry.getActor());
+            default -> {
+            }
+        }
+        return line.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        PrintStream out = System.out;
+        if (args.length < 2) {
+            out.println("usage: <journal dir> open | order <id> | type <" + List.of(JournalEntryType.values()) + "> | dump");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        switch (args[1]) {
+            case "open" -> openOrders(directory).values().forEach(order -> out.println(order.getOrderId()
+                    + "\t" + order.getStatus()
+                    + "\t" + (order.isComplete() ? order.getCreatedAt() + "\t" + order.getWaiterUsername() : "(created before the journal)")
+                    + "\ttotal=" + Money.toMajor(order.getTotalAmountMinor())
+                    + "\titems=" + order.getQuantities()));
+            case "order" -> history(directory, Long.parseLong(args[2])).forEach(record -> out.println(describe(record)));
+            case "type" -> {
+                JournalEntryType type = JournalEntryType.valueOf(args[2]);
+                select(directory, record -> record.getEntry().getType() == type).forEach(record -> out.println(describe(record)));
+            }
+            case "dump" -> forEach(directory, record -> out.println(describe(record)));
+            default -> {
+                out.println("unknown command: " + args[1]);
+                System.exit(2);
+            }
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package waiter.app.mapper;
 
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 import waiter.app.dto.OrderDto;
 import waiter.app.dto.OrderItemDto;
+import waiter.app.entities.ArchivedOrder;
 import waiter.app.entities.Order;
 import waiter.app.entities.OrderItem;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.MenuSnapshot;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class OrderMapper {
 
+    private final MenuItemService menuItemService;
+
     public OrderDto toDto(Order order) {
         List<OrderItemDto> itemDtos = (order.getItems() == null) ?
                 List.of() :
@@ -31,6 +39,26 @@ public class OrderMapper {
         );
     }
 
+    // Archived lines carry their own menu item name
+    public OrderDto toDto(ArchivedOrder order) {
+        List<OrderItemDto> itemDtos = (order.getItems() == null) ?
+                List.of() :
+                order.getItems().stream()
+                        .map(item -> new OrderItemDto(item.getId(), item.getMenuItemId(), item.getMenuItemName(),
+                                item.getQuantity(), item.getComments()))
+                        .collect(Collectors.toList());
+
+        return new OrderDto(
+                order.getId(),
+                order.getWaiterUsername(),
+                order.getStatus(),
+                itemDtos,
+                order.getRefundedBy(),
+                order.getRefundReason(),
+                order.getRefundedAt()
+        );
+    }
+
     private OrderItemDto toItemDto(OrderItem item) {
         if (item == null || item.getMenuItem() == null) {
             // Αν θέλεις, μπορείς να ρίξεις εξαίρεση ή να επιστρέψεις null ή default τιμές
@@ -40,9 +68,20 @@ public class OrderMapper {
         return new OrderItemDto(
                 item.getId(),
                 item.getMenuItem().getId(),
-                item.getMenuItem().getName(),
+                menuItemName(item),
                 item.getQuantity(),
                 item.getComments()
         );
     }
+
+    // Avoid initializing a lazy menu item proxy just for its name
+    private String menuItemName(OrderItem item) {
+        if (!Hibernate.isInitialized(item.getMenuItem())) {
+            MenuSnapshot.Entry entry = menuItemService.peekMenuEntry(item.getMenuItem().getId());
+            if (entry != null) {
+                return entry.getName();
+            }
+        }
+        return item.getMenuItem().getName();
+    }
 }
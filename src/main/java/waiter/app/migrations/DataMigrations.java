@@ -0,0 +1,277 @@
+package waiter.app.migrations;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import waiter.app.services.OrderService;
+import waiter.app.utils.Money;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * One-off data fixes that ddl-auto=update cannot express (backfills, merging
+ * rows that break a new constraint). Runs at startup, after Hibernate has
+ * updated the schema and before the application serves requests. Every
+ * migration runs once per database, in list order, each in its own
+ * transaction together with its row in schema_migrations; an instance that
+ * starts concurrently blocks on that row and skips the migration.
+ *
+ * <p>Migrations must also be harmless on an empty database: a fresh install
+ * runs all of them.
+ */
+@Slf4j
+@Component
+public class DataMigrations {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int BATCH_SIZE = 500;
+    private static final int ID_ALLOCATION_SIZE = 50; // allocationSize of the orders/order_items table generators
+
+    private final List<Migration> migrations = List.of(
+            new Migration("003-seed-id-generators",
+                    "Start the orders/order_items table generators above the ids already in use",
+                    this::seedIdGenerators),
+            new Migration("009-backfill-minor-amounts",
+                    "Fill order_items.unit_price_minor and orders.total_amount_minor on rows that predate them",
+                    this::backfillMinorAmounts),
+            new Migration("010-merge-duplicate-order-lines",
+                    "Merge order lines for the same menu item and add uk_order_items_order_menu_item",
+                    this::mergeDuplicateOrderLines),
+            new Migration("013-scope-sync-ops-by-user",
+                    "Attribute sync_applied_ops rows to users and drop the device-only unique key",
+                    this::scopeSyncOpsByUser)
+    );
+
+    // The EntityManagerFactory parameter makes this run after the schema update
+    public DataMigrations(DataSource dataSource,
+                          PlatformTransactionManager transactionManager,
+                          EntityManagerFactory entityManagerFactory) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record Migration(String id, String description, Consumer<JdbcTemplate> body) {
+    }
+
+    @PostConstruct
+    public void migrate() {
+        jdbc.execute("create table if not exists schema_migrations (" +
+                "id varchar(100) not null primary key, description varchar(255), applied_at timestamp not null)");
+        Set<String> applied = new HashSet<>(jdbc.queryForList("select id from schema_migrations", String.class));
+        for (Migration migration : migrations) {
+            if (!applied.contains(migration.id())) {
+                run(migration);
+            }
+        }
+    }
+
+    // Reapplies one migration; for tests that recreate the state it fixes
+    public void rerun(String id) {
+        jdbc.update("delete from schema_migrations where id = ?", id);
+        migrations.stream()
+                .filter(migration -> migration.id().equals(id))
+                .findFirst()
+                .ifPresentOrElse(this::run, () -> {
+                    throw new IllegalArgumentException("Unknown migration " + id);
+                });
+    }
+
+    private void run(Migration migration) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Claims the migration first: a concurrent instance waits here, then fails on the key
+                jdbc.update("insert into schema_migrations (id, description, applied_at) values (?, ?, ?)",
+                        migration.id(), migration.description(), Timestamp.valueOf(LocalDateTime.now()));
+                migration.body().accept(jdbc);
+            });
+            log.info("Applied data migration {}", migration.id());
+        } catch (DuplicateKeyException e) {
+            log.info("Data migration {} was applied by another instance", migration.id());
+        }
+    }
+
+    // --- migrations -------------------------------------------------------------------------
+
+    // Ids used to come from auto_increment; a new id_generators row would start at 1 and collide.
+    // Archived rows keep their ids, so they count too.
+    private void seedIdGenerators(JdbcTemplate jdbc) {
+        seedIdGenerator(jdbc, "orders", "orders", "orders_archive");
+        seedIdGenerator(jdbc, "order_items", "order_items", "order_items_archive");
+    }
+
+    private void seedIdGenerator(JdbcTemplate jdbc, String generator, String... tables) {
+        long maxId = 0;
+        for (String table : tables) {
+            maxId = Math.max(maxId, jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class));
+        }
+        // Clear of a whole pool above the highest id, as DatasetGenerator leaves it
+        long next = maxId + ID_ALLOCATION_SIZE + 1;
+        if (jdbc.update("update id_generators set next_val = ? where gen_name = ? and next_val < ?",
+                next, generator, next) > 0) {
+            log.info("Moved id generator {} to {}", generator, next);
+        } else if (jdbc.queryForObject("select count(*) from id_generators where gen_name = ?",
+                Integer.class, generator) == 0) {
+            jdbc.update("insert into id_generators (gen_name, next_val) values (?, ?)", generator, next);
+        }
+    }
+
+    // Lines get the current menu price (the best snapshot left); orders get the old Double total
+    // when that column is still there, else the sum of their lines. New rows never hold 0 in either
+    // column: a line carries a positive quantity and a non-zero menu price.
+    private void backfillMinorAmounts(JdbcTemplate jdbc) {
+        List<Object[]> prices = new ArrayList<>();
+        jdbc.query("select id, price from menu_items", rows -> {
+            prices.add(new Object[]{Money.toMinor(rows.getObject("price", Double.class)), rows.getLong("id")});
+        });
+        int lines = sum(jdbc.batchUpdate(
+                "update order_items set unit_price_minor = ? where menu_item_id = ? and unit_price_minor = 0", prices));
+
+        int[] orders = {0};
+        if (hasColumn("orders", "total_amount")) {
+            String update = "update orders set total_amount_minor = ? where id = ?";
+            List<Object[]> totals = new ArrayList<>();
+            jdbc.query("select id, total_amount from orders where total_amount_minor = 0 and total_amount is not null",
+                    rows -> {
+                        totals.add(new Object[]{Money.toMinor(rows.getObject("total_amount", Double.class)),
+                                rows.getLong("id")});
+                        if (totals.size() == BATCH_SIZE) {
+                            orders[0] += sum(jdbc.batchUpdate(update, totals));
+                            totals.clear();
+                        }
+                    });
+            orders[0] += sum(jdbc.batchUpdate(update, totals));
+        }
+        // Orders without an old total (or on a database that never had the column) are summed from their lines
+        orders[0] += jdbc.update("update orders set total_amount_minor = " +
+                "(select coalesce(sum(i.quantity * i.unit_price_minor), 0) from order_items i where i.order_id = orders.id) " +
+                "where total_amount_minor = 0");
+        if (lines > 0 || orders[0] > 0) {
+            log.info("Backfilled minor amounts on {} order lines and {} orders", lines, orders[0]);
+        }
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    // Keeps the oldest line of each (order, menu item) pair with the summed quantity and both notes.
+    // Lines of one menu item carry the same snapshot price, so order totals do not change.
+    private void mergeDuplicateOrderLines(JdbcTemplate jdbc) {
+        Map<List<Long>, List<Map<String, Object>>> groups = new HashMap<>();
+        List<List<Long>> order = new ArrayList<>();
+        jdbc.query("select i.id, i.order_id, i.menu_item_id, i.quantity, i.comments from order_items i " +
+                "join (select order_id, menu_item_id from order_items group by order_id, menu_item_id " +
+                "having count(*) > 1) d on d.order_id = i.order_id and d.menu_item_id = i.menu_item_id " +
+                "order by i.order_id, i.menu_item_id, i.id", rows -> {
+            List<Long> key = List.of(rows.getLong("order_id"), rows.getLong("menu_item_id"));
+            groups.computeIfAbsent(key, k -> {
+                order.add(k);
+                return new ArrayList<>();
+            }).add(Map.of("id", rows.getLong("id"), "quantity", rows.getInt("quantity"),
+                    "comments", rows.getString("comments") == null ? "" : rows.getString("comments")));
+        });
+
+        List<Object[]> keepers = new ArrayList<>();
+        List<Object[]> removed = new ArrayList<>();
+        for (List<Long> key : order) {
+            List<Map<String, Object>> lines = groups.get(key);
+            int quantity = 0;
+            String comments = null;
+            for (Map<String, Object> line : lines) {
+                quantity += (Integer) line.get("quantity");
+                comments = OrderService.mergeComments(comments, (String) line.get("comments"));
+                if (line != lines.get(0)) {
+                    removed.add(new Object[]{line.get("id")});
+                }
+            }
+            if (comments != null && comments.length() > 255) {
+                comments = comments.substring(0, 255);
+            }
+            keepers.add(new Object[]{quantity, comments == null || comments.isEmpty() ? null : comments,
+                    lines.get(0).get("id")});
+        }
+        jdbc.batchUpdate("update order_items set quantity = ?, comments = ? where id = ?", keepers);
+        jdbc.batchUpdate("delete from order_items where id = ?", removed);
+        if (!removed.isEmpty()) {
+            log.warn("Merged {} duplicate order lines into {} lines", removed.size(), keepers.size());
+        }
+
+        // ddl-auto=update could not add the constraint while duplicates existed
+        if (!hasUniqueIndex("order_items", Set.of("order_id", "menu_item_id"))) {
+            jdbc.execute("alter table order_items add constraint uk_order_items_order_menu_item " +
+                    "unique (order_id, menu_item_id)");
+        }
+    }
+
+    // Rows from before the username column belong to whoever owns the order they touched: the best
+    // guess left, and right for every order the device created. Rows without an order expire unmatched.
+    // The old (device_id, client_seq) key would still reject a second user on the same device id.
+    private void scopeSyncOpsByUser(JdbcTemplate jdbc) {
+        int attributed = jdbc.update("update sync_applied_ops s set username = " +
+                "(select o.waiter_username from orders o where o.id = s.order_id) " +
+                "where (s.username is null or s.username = '') " +
+                "and exists (select 1 from orders o where o.id = s.order_id and o.waiter_username is not null)");
+        if (attributed > 0) {
+            log.info("Attributed {} applied sync operations to their order's waiter", attributed);
+        }
+        if (hasUniqueIndex("sync_applied_ops", Set.of("device_id", "client_seq"))) {
+            jdbc.execute("alter table sync_applied_ops drop constraint uk_sync_applied_ops_device_seq");
+        }
+    }
+
+    // --- schema inspection ------------------------------------------------------------------
+
+    private boolean hasColumn(String table, String column) {
+        return Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet rows = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table, null)) {
+                while (rows.next()) {
+                    if (column.equalsIgnoreCase(rows.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    private boolean hasUniqueIndex(String table, Set<String> columns) {
+        return Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Set<String>> indexes = new HashMap<>();
+            try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                    table, true, false)) {
+                while (rows.next()) {
+                    if (rows.getString("INDEX_NAME") != null && rows.getString("COLUMN_NAME") != null) {
+                        indexes.computeIfAbsent(rows.getString("INDEX_NAME"), name -> new HashSet<>())
+                                .add(rows.getString("COLUMN_NAME").toLowerCase());
+                    }
+                }
+            }
+            return indexes.containsValue(columns);
+        }));
+    }
+}
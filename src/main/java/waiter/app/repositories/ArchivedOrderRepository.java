@@ -0,0 +1,50 @@
+package waiter.app.repositories;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import waiter.app.entities.ArchivedOrder;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"items"})
+    Optional<ArchivedOrder> findById(Long id);
+
+    @Query("select o.version from ArchivedOrder o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Archival chunk: oldest closed orders first, locked so a concurrent change cannot slip between copy and delete.
+    // The last of created/paid/refunded must be past the cutoff, so rollup days after it only ever read live rows.
+    @Query(value = "select id from orders where status in (:statuses) and created_at < :cutoff " +
+            "and coalesce(refunded_at, paid_at, created_at) < :cutoff " +
+            "order by created_at, id limit :limit for update", nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("statuses") Collection<String> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "insert into orders_archive (id, created_at, status, waiter_username, payment_method, paid_at, " +
+            "total_amount_minor, refunded_by, refund_reason, refunded_at, version, archived_at) " +
+            "select id, created_at, status, waiter_username, payment_method, paid_at, " +
+            "total_amount_minor, refunded_by, refund_reason, refunded_at, version, :archivedAt " +
+            "from orders where id in (:ids)", nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "insert into order_items_archive (id, order_id, menu_item_id, menu_item_name, quantity, " +
+            "comments, unit_price_minor) " +
+            "select i.id, i.order_id, i.menu_item_id, m.name, i.quantity, i.comments, i.unit_price_minor " +
+            "from order_items i left join menu_items m on m.id = i.menu_item_id " +
+            "where i.order_id in (:ids)", nativeQuery = true)
+    int copyItems(@Param("ids") Collection<Long> ids);
+}
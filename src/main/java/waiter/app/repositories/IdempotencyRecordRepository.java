@@ -0,0 +1,50 @@
+package waiter.app.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import waiter.app.entities.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain INSERT (not merge) so a concurrent claim of the same key fails on the primary key
+    @Modifying
+    @Transactional
+    @Query(value = "insert into idempotency_keys (scoped_key, request_fingerprint, status_code, created_at) " +
+            "values (:scopedKey, :fingerprint, 0, :createdAt)", nativeQuery = true)
+    int claim(@Param("scopedKey") String scopedKey,
+              @Param("fingerprint") String fingerprint,
+              @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.statusCode = :statusCode, r.contentType = :contentType, " +
+            "r.responseBody = :body where r.scopedKey = :scopedKey")
+    int complete(@Param("scopedKey") String scopedKey,
+                 @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType,
+                 @Param("body") String body);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.scopedKey = :scopedKey and r.statusCode = 0")
+    int release(@Param("scopedKey") String scopedKey);
+
+    // Drops the key if its request died without completing, or if it outlived the TTL before the purge ran
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.scopedKey = :scopedKey and " +
+            "((r.statusCode = 0 and r.createdAt < :inFlightCutoff) or r.createdAt < :expiryCutoff)")
+    int expire(@Param("scopedKey") String scopedKey,
+               @Param("inFlightCutoff") LocalDateTime inFlightCutoff,
+               @Param("expiryCutoff") LocalDateTime expiryCutoff);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
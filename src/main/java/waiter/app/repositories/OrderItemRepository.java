@@ -1,9 +1,56 @@
 package waiter.app.repositories;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import waiter.app.entities.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // Locking read, taken while the order row is locked (see OrderRepository.findHeaderForUpdate)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i.id as id, i.quantity as quantity, i.unitPriceMinor as unitPriceMinor " +
+            "from OrderItem i where i.order.id = :orderId and i.menuItem.id = :menuItemId")
+    Optional<LineState> findLineStateForUpdate(@Param("orderId") Long orderId, @Param("menuItemId") Long menuItemId);
+
+    // Lines without their menu items; names come from the menu catalog
+    @Query("select i.id as id, i.menuItem.id as menuItemId, i.quantity as quantity, " +
+            "i.unitPriceMinor as unitPriceMinor, i.comments as comments " +
+            "from OrderItem i where i.order.id = :orderId order by i.id")
+    List<LineView> findLineViews(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("update OrderItem i set i.quantity = i.quantity + :delta where i.id = :id")
+    int adjustQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.id = :id")
+    int deleteLine(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    interface LineView {
+        Long getId();
+        Long getMenuItemId();
+        int getQuantity();
+        long getUnitPriceMinor();
+        String getComments();
+    }
+
+    interface LineState {
+        Long getId();
+        int getQuantity();
+        long getUnitPriceMinor();
+    }
 }
@@ -1,10 +1,169 @@
 package waiter.app.repositories;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
 import waiter.app.entities.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    // Single-order reads load items and menu items in one join
+    @Override
+    @EntityGraph(attributePaths = {"items", "items.menuItem"})
+    Optional<Order> findById(Long id);
+
+    @Query("select o.version from Order o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"items", "items.menuItem"})
+    List<Order> findByStatusInOrderByCreatedAtAsc(Collection<OrderStatus> statuses);
+
+    // Kitchen board refresh: every order changed since the last pass in one query
+    @EntityGraph(attributePaths = {"items", "items.menuItem"})
+    List<Order> findByIdIn(Collection<Long> ids);
+
+    @Query("select o.status from Order o where o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+    @Query("select o.status as status, o.waiterUsername as waiterUsername, o.totalAmountMinor as totalAmountMinor " +
+            "from Order o where o.id = :id")
+    Optional<OrderHeader> findHeaderById(@Param("id") Long id);
+
+    // Everything a status change reports (response, rollups, journal) except the lines
+    @Query("select o.id as id, o.createdAt as createdAt, o.status as status, o.waiterUsername as waiterUsername, " +
+            "o.paymentMethod as paymentMethod, o.paidAt as paidAt, o.totalAmountMinor as totalAmountMinor, " +
+            "o.refundedBy as refundedBy, o.refundReason as refundReason, o.refundedAt as refundedAt " +
+            "from Order o where o.id = :id")
+    Optional<OrderView> findViewById(@Param("id") Long id);
+
+    // Item quantity deltas. The header read row-locks the order until commit,
+    // so concurrent deltas on the same order are applied one after the other.
+    // The reads are locking reads: a plain read could return the REPEATABLE
+    // READ snapshot instead of the rows another delta just committed.
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.status as status, o.waiterUsername as waiterUsername, o.totalAmountMinor as totalAmountMinor " +
+            "from Order o where o.id = :id")
+    Optional<OrderHeader> findHeaderForUpdate(@Param("id") Long id);
+
+    // Bumps the version too: only a delta that changed a line may change the ETag
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.totalAmountMinor = o.totalAmountMinor + :delta, o.version = o.version + 1 " +
+            "where o.id = :id")
+    int adjustTotal(@Param("id") Long id, @Param("delta") long delta);
+
+    // Conditional state transitions: 0 rows updated means not found or wrong current status
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.version = o.version + 1 " +
+            "where o.id = :id and o.status in :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") Collection<OrderStatus> from,
+                   @Param("to") OrderStatus to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.paymentMethod = :method, o.paidAt = :paidAt, " +
+            "o.version = o.version + 1 where o.id = :id and o.status in :from")
+    int transitionToPaid(@Param("id") Long id,
+                         @Param("from") Collection<OrderStatus> from,
+                         @Param("to") OrderStatus to,
+                         @Param("method") PaymentMethod method,
+                         @Param("paidAt") LocalDateTime paidAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.refundedBy = :refundedBy, o.refundReason = :reason, " +
+            "o.refundedAt = :refundedAt, o.version = o.version + 1 " +
+            "where o.id = :id and o.status in :from")
+    int transitionToRefunded(@Param("id") Long id,
+                             @Param("from") Collection<OrderStatus> from,
+                             @Param("to") OrderStatus to,
+                             @Param("refundedBy") String refundedBy,
+                             @Param("reason") String reason,
+                             @Param("refundedAt") LocalDateTime refundedAt);
+
+    // Bulk kitchen updates
+
+    @Query("select o.id as id, o.status as status, o.waiterUsername as waiterUsername " +
+            "from Order o where o.id in :ids")
+    List<OrderStatusView> findStatusViews(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to, o.version = o.version + 1 " +
+            "where o.id in :ids and o.status in :from")
+    int transitionAll(@Param("ids") Collection<Long> ids,
+                      @Param("from") Collection<OrderStatus> from,
+                      @Param("to") OrderStatus to);
+
+    // Keyset pagination: newest first, (createdAt, id) breaks ties.
+    // No entity graph here: a collection fetch would disable the SQL limit,
+    // items and menu items are batch-fetched instead (default_batch_fetch_size).
+    @Query("select o from Order o order by o.createdAt desc, o.id desc")
+    List<Order> findFirstPage(Pageable pageable);
+
+    @Query("select o from Order o " +
+            "where o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id) " +
+            "order by o.createdAt desc, o.id desc")
+    List<Order> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Pageable pageable);
+
+    // Archival; items must be deleted first (bulk deletes do not cascade)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Order o where o.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Sales rollup rebuild; orders paid before paid_at existed fall back to created_at
+
+    @EntityGraph(attributePaths = {"items"})
+    @Query("select o from Order o where o.status in :statuses and " +
+            "((o.paidAt >= :from and o.paidAt < :to) or " +
+            "(o.paidAt is null and o.createdAt >= :from and o.createdAt < :to))")
+    List<Order> findPaidBetween(@Param("statuses") Collection<OrderStatus> statuses,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    @EntityGraph(attributePaths = {"items"})
+    @Query("select o from Order o where o.status = :status and o.refundedAt >= :from and o.refundedAt < :to")
+    List<Order> findRefundedBetween(@Param("status") OrderStatus status,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+
+    interface OrderHeader {
+        OrderStatus getStatus();
+        String getWaiterUsername();
+        long getTotalAmountMinor();
+    }
+
+    interface OrderView {
+        Long getId();
+        LocalDateTime getCreatedAt();
+        OrderStatus getStatus();
+        String getWaiterUsername();
+        PaymentMethod getPaymentMethod();
+        LocalDateTime getPaidAt();
+        long getTotalAmountMinor();
+        String getRefundedBy();
+        String getRefundReason();
+        LocalDateTime getRefundedAt();
+    }
 
+    interface OrderStatusView {
+        Long getId();
+        OrderStatus getStatus();
+        String getWaiterUsername();
+    }
 }
@@ -0,0 +1,34 @@
+package waiter.app.repositories;
+
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.OrderExportRow;
+import waiter.app.dto.OrderSearchCriteria;
+import waiter.app.entities.Order;
+import waiter.app.utils.OrderCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Filtered keyset page, newest first. Only the given filters end up in the
+     * SQL, so each combination can use its matching composite index.
+     *
+     * @param after last row of the previous page (null = first page)
+     */
+    List<Order> search(OrderSearchCriteria criteria, OrderCursor after, int limit);
+
+    /**
+     * Forward-only stream of order lines created in [from, to), ordered by order.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<OrderExportRow> streamExportRows(LocalDateTime from, LocalDateTime to,
+                                            Collection<OrderStatus> statuses, int fetchSize);
+
+    // Same rows from orders_archive/order_items_archive
+    Stream<OrderExportRow> streamArchivedExportRows(LocalDateTime from, LocalDateTime to,
+                                                    Collection<OrderStatus> statuses, int fetchSize);
+}
@@ -0,0 +1,110 @@
+package waiter.app.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.OrderExportRow;
+import waiter.app.dto.OrderSearchCriteria;
+import waiter.app.entities.Order;
+import waiter.app.utils.OrderCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    // Sorted by order only: (created_at, id) walks idx_orders_created_at_id, so rows
+    // stream as they are read; adding the line id would force a filesort first.
+    private static final String EXPORT_QUERY =
+            "select new waiter.app.dto.OrderExportRow(o.id, o.createdAt, o.status, o.waiterUsername, " +
+            "o.paymentMethod, o.paidAt, o.refundedAt, o.totalAmountMinor, i.id, m.id, m.name, " +
+            "i.quantity, i.unitPriceMinor) " +
+            "from Order o left join o.items i left join i.menuItem m " +
+            "where o.createdAt >= :from and o.createdAt < :to and o.status in :statuses " +
+            "order by o.createdAt, o.id";
+
+    private static final String ARCHIVED_EXPORT_QUERY =
+            "select new waiter.app.dto.OrderExportRow(o.id, o.createdAt, o.status, o.waiterUsername, " +
+            "o.paymentMethod, o.paidAt, o.refundedAt, o.totalAmountMinor, i.id, i.menuItemId, i.menuItemName, " +
+            "i.quantity, i.unitPriceMinor) " +
+            "from ArchivedOrder o left join o.items i " +
+            "where o.createdAt >= :from and o.createdAt < :to and o.status in :statuses " +
+            "order by o.createdAt, o.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Order> search(OrderSearchCriteria criteria, OrderCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> order = query.from(Order.class);
+        Path<LocalDateTime> createdAt = order.get("createdAt");
+        Path<Long> id = order.get("id");
+        Path<Long> total = order.get("totalAmountMinor");
+
+        List<Predicate> where = new ArrayList<>();
+        if (criteria.getStatuses() != null && !criteria.getStatuses().isEmpty()) {
+            where.add(order.get("status").in(criteria.getStatuses()));
+        }
+        if (criteria.getWaiterUsername() != null) {
+            where.add(cb.equal(order.get("waiterUsername"), criteria.getWaiterUsername()));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(createdAt, criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            where.add(cb.lessThan(createdAt, criteria.getCreatedTo()));
+        }
+        if (criteria.getMinAmountMinor() != null) {
+            where.add(cb.greaterThanOrEqualTo(total, criteria.getMinAmountMinor()));
+        }
+        if (criteria.getMaxAmountMinor() != null) {
+            where.add(cb.lessThanOrEqualTo(total, criteria.getMaxAmountMinor()));
+        }
+        if (after != null) {
+            where.add(cb.or(
+                    cb.lessThan(createdAt, after.getCreatedAt()),
+                    cb.and(cb.equal(createdAt, after.getCreatedAt()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.select(order)
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<OrderExportRow> streamExportRows(LocalDateTime from, LocalDateTime to,
+                                                   Collection<OrderStatus> statuses, int fetchSize) {
+        return stream(EXPORT_QUERY, from, to, statuses, fetchSize);
+    }
+
+    @Override
+    public Stream<OrderExportRow> streamArchivedExportRows(LocalDateTime from, LocalDateTime to,
+                                                           Collection<OrderStatus> statuses, int fetchSize) {
+        return stream(ARCHIVED_EXPORT_QUERY, from, to, statuses, fetchSize);
+    }
+
+    private Stream<OrderExportRow> stream(String query, LocalDateTime from, LocalDateTime to,
+                                          Collection<OrderStatus> statuses, int fetchSize) {
+        return entityManager.createQuery(query, OrderExportRow.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("statuses", statuses)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
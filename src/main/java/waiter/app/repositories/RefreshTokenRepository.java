@@ -0,0 +1,62 @@
+package waiter.app.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import waiter.app.Enums.RefreshTokenRevocation;
+import waiter.app.entities.RefreshToken;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Conditional, so of two concurrent exchanges of the same token only one succeeds
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.revokedAt = :now, t.revokedReason = :reason " +
+            "where t.id = :id and t.revokedAt is null")
+    int revoke(@Param("id") Long id,
+               @Param("reason") RefreshTokenRevocation reason,
+               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.replacedById = :successorId where t.id = :id")
+    int linkSuccessor(@Param("id") Long id, @Param("successorId") Long successorId);
+
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.revokedAt = :now, t.revokedReason = :reason " +
+            "where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(@Param("familyId") String familyId,
+                     @Param("reason") RefreshTokenRevocation reason,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.revokedAt = :now, t.revokedReason = :reason " +
+            "where t.username = :username and t.revokedAt is null")
+    int revokeUser(@Param("username") String username,
+                   @Param("reason") RefreshTokenRevocation reason,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.revokedAt = :now, t.revokedReason = :reason " +
+            "where t.username = :username and t.deviceId = :deviceId and t.revokedAt is null")
+    int revokeDevice(@Param("username") String username,
+                     @Param("deviceId") String deviceId,
+                     @Param("reason") RefreshTokenRevocation reason,
+                     @Param("now") LocalDateTime now);
+
+    // Revoked tokens stay until they expire, so a stolen rotated token is still recognised
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken t where t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
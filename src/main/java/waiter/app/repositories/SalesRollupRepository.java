@@ -0,0 +1,30 @@
+package waiter.app.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import waiter.app.Enums.RollupBucket;
+import waiter.app.Enums.RollupDimension;
+import waiter.app.entities.SalesRollup;
+import waiter.app.entities.SalesRollupId;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId>, SalesRollupRepositoryCustom {
+
+    @Query("select r from SalesRollup r where r.id.bucketType = :bucket and r.id.dimension = :dimension " +
+            "and r.id.bucketStart >= :from and r.id.bucketStart < :to " +
+            "order by r.id.bucketStart, r.id.dimensionKey")
+    List<SalesRollup> findRange(@Param("bucket") RollupBucket bucket,
+                                @Param("dimension") RollupDimension dimension,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from SalesRollup r where r.id.bucketStart >= :from and r.id.bucketStart < :to")
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
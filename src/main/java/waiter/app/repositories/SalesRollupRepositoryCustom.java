@@ -0,0 +1,14 @@
+package waiter.app.repositories;
+
+import waiter.app.entities.SalesRollup;
+
+import java.util.Collection;
+
+public interface SalesRollupRepositoryCustom {
+
+    /**
+     * Adds the counters of every given row to the stored row with the same id,
+     * creating it if missing. Rows are written in the given order.
+     */
+    void increment(Collection<SalesRollup> deltas);
+}
@@ -0,0 +1,50 @@
+package waiter.app.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import waiter.app.entities.SalesRollup;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Upserts go through JDBC: one batched round trip per payment instead of a select + update per row
+@RequiredArgsConstructor
+public class SalesRollupRepositoryImpl implements SalesRollupRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "insert into sales_rollups (bucket_type, bucket_start, dimension, dimension_key, " +
+            "order_count, item_quantity, revenue_minor, refund_count, refunded_minor) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "on duplicate key update " +
+            "order_count = order_count + values(order_count), " +
+            "item_quantity = item_quantity + values(item_quantity), " +
+            "revenue_minor = revenue_minor + values(revenue_minor), " +
+            "refund_count = refund_count + values(refund_count), " +
+            "refunded_minor = refunded_minor + values(refunded_minor)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void increment(Collection<SalesRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (SalesRollup delta : deltas) {
+            args.add(new Object[]{
+                    delta.getId().getBucketType().name(),
+                    Timestamp.valueOf(delta.getId().getBucketStart()),
+                    delta.getId().getDimension().name(),
+                    delta.getId().getDimensionKey(),
+                    delta.getOrderCount(),
+                    delta.getItemQuantity(),
+                    delta.getRevenueMinor(),
+                    delta.getRefundCount(),
+                    delta.getRefundedMinor()
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+}
@@ -0,0 +1,34 @@
+package waiter.app.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import waiter.app.Enums.SyncOperationType;
+import waiter.app.entities.SyncAppliedOp;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SyncAppliedOpRepository extends JpaRepository<SyncAppliedOp, Long> {
+
+    List<SyncAppliedOp> findByUsernameAndDeviceIdAndClientSeqIn(String username, String deviceId,
+                                                                Collection<Long> clientSeqs);
+
+    @Query("select s.orderId from SyncAppliedOp s where s.username = :username and s.deviceId = :deviceId " +
+            "and s.clientOrderRef = :clientOrderRef and s.type = :type")
+    Optional<Long> findOrderIdByClientOrderRef(@Param("username") String username,
+                                               @Param("deviceId") String deviceId,
+                                               @Param("clientOrderRef") String clientOrderRef,
+                                               @Param("type") SyncOperationType type);
+
+    @Modifying
+    @Transactional
+    @Query("delete from SyncAppliedOp s where s.appliedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,7 +1,19 @@
 package waiter.app.repositories;
 
+import org.springframework.data.jpa.repository.Query;
 import waiter.app.entities.Tables;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface TableRepository extends JpaRepository<Tables, Long> {
-}
\ No newline at end of file
+
+    // Changes whenever a row is inserted, updated or deleted
+    @Query("select count(t) as count, coalesce(sum(t.version), 0) as versionSum, coalesce(max(t.id), 0) as maxId " +
+            "from Tables t")
+    CollectionVersion findCollectionVersion();
+
+    interface CollectionVersion {
+        Long getCount();
+        Long getVersionSum();
+        Long getMaxId();
+    }
+}
@@ -1,10 +1,14 @@
 package waiter.app.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -13,10 +17,15 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import waiter.app.services.ConcurrencyLimitFilter;
+import waiter.app.services.IdempotencyFilter;
 import waiter.app.services.JwtAuthenticationFilter;
 
 import java.util.List;
@@ -27,7 +36,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final IdempotencyFilter idempotencyFilter;
+
+    // Prometheus scrapes need ADMIN unless ranges are listed. The address is the one this server sees, so
+    // behind a reverse proxy it is the proxy's: only list ranges that reach the app without one
+    @Value("${pda.metrics.scrape-ip-ranges:}")
+    private List<String> scrapeIpRanges;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -40,13 +56,21 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/orders").hasAnyRole("WAITER", "ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/orders/*/refund").hasRole("ADMIN")
                 .requestMatchers("/api/users/**").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/api/reports/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/users/*").hasRole("ADMIN")
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/prometheus").access(scrapeAccess())
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
                 .and()
                 .sessionManagement()
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Admit the request before token checks, which may hit the database
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(idempotencyFilter, AuthorizationFilter.class);
 
         return http.build();
     }
@@ -57,6 +81,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:3000")); // front-end origin
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("Idempotent-Replayed", "ETag")); // ETag: for If-None-Match / If-Match
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -73,4 +98,16 @@ public class SecurityConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAccess() {
+        List<IpAddressMatcher> scrapers = scrapeIpRanges.stream()
+                .map(String::trim)
+                .filter(range -> !range.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        AuthorizationManager<RequestAuthorizationContext> admin = AuthorityAuthorizationManager.hasRole("ADMIN");
+        return (authentication, context) -> scrapers.stream().anyMatch(scraper -> scraper.matches(context.getRequest()))
+                ? new AuthorizationDecision(true)
+                : admin.check(authentication, context);
+    }
 }
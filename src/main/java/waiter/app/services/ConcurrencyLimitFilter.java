@@ -0,0 +1,100 @@
+package waiter.app.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests in flight at a small multiple of the JDBC
+ * pool size. With virtual threads nothing else bounds concurrency, and
+ * thousands of requests would otherwise queue inside HikariCP, each holding
+ * its memory and timing out after connection-timeout. Here they wait, in
+ * arrival order, for at most queue-timeout-ms and are then answered 503
+ * with Retry-After. Always on in virtual thread mode, optional otherwise.
+ *
+ * <p>The permit covers the request thread only: SSE subscriptions and
+ * async exports release it once their response is handed off.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final int permits;
+    private final long queueTimeoutMs;
+    private final Semaphore semaphore;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(@Value("${pda.threads.mode:platform}") String mode,
+                                  @Value("${pda.threads.limiter.enabled:false}") boolean enabled,
+                                  @Value("${pda.threads.limiter.max-concurrent:0}") int maxConcurrent,
+                                  @Value("${pda.threads.limiter.permits-per-connection:2}") int permitsPerConnection,
+                                  @Value("${pda.threads.limiter.queue-timeout-ms:2000}") long queueTimeoutMs,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                  MeterRegistry registry) {
+        this.enabled = enabled || "virtual".equalsIgnoreCase(mode);
+        this.permits = maxConcurrent > 0 ? maxConcurrent : Math.max(1, poolSize * permitsPerConnection);
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.semaphore = new Semaphore(permits, true);
+
+        Gauge.builder("pda.requests.limiter.active", semaphore, s -> permits - s.availablePermits())
+                .description("Requests holding a concurrency permit").register(registry);
+        Gauge.builder("pda.requests.limiter.queued", semaphore, Semaphore::getQueueLength)
+                .description("Requests waiting for a concurrency permit").register(registry);
+        this.rejected = Counter.builder("pda.requests.limiter.rejected")
+                .description("Requests answered 503 after waiting queue-timeout-ms").register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health probes must answer when the application is saturated
+        return !enabled || request.getRequestURI().substring(request.getContextPath().length()).startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Server busy, retry shortly");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int permits() {
+        return permits;
+    }
+}
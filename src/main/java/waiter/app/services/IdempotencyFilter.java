@@ -0,0 +1,199 @@
+package waiter.app.services;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import waiter.app.entities.IdempotencyRecord;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Makes mutating /api/orders requests safe to retry: a request carrying an
+ * Idempotency-Key that was already answered gets the stored response back
+ * (with Idempotent-Replayed: true) instead of running again. A key is bound to
+ * the method, path, query and body it was first used with; reusing it for
+ * anything else gets 422.
+ * Runs after authorization so keys are only claimed by allowed requests.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final IdempotencyStore store;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(KEY_HEADER) == null
+                || !MUTATING_METHODS.contains(request.getMethod())
+                || !path(request).startsWith("/api/orders");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        final String key = request.getHeader(KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writePlain(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String scopedKey = IdempotencyStore.scope(authentication.getName(), key);
+        byte[] body;
+        if (isForm(request)) {
+            // The container parses form bodies into parameters; hash those and leave the stream alone
+            body = request.getParameterMap().entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .map(parameter -> parameter.getKey() + '=' + String.join(",", parameter.getValue()))
+                    .collect(Collectors.joining("&"))
+                    .getBytes(StandardCharsets.UTF_8);
+        } else {
+            body = request.getInputStream().readAllBytes();
+            request = new CachedBodyRequest(request, body);
+        }
+        String fingerprint = IdempotencyStore.fingerprint(request.getMethod(), path(request), request.getQueryString(), body);
+
+        IdempotencyRecord existing = store.claim(scopedKey, fingerprint);
+        if (existing != null) {
+            replay(existing, fingerprint, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            // 5xx is not a final answer: leave the key free so the retry runs again
+            if (wrapper.getStatus() < 500) {
+                store.complete(scopedKey, fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+                        new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+                completed = true;
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+            if (!completed) {
+                store.release(scopedKey);
+            }
+        }
+    }
+
+    private void replay(IdempotencyRecord record, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!record.getRequestFingerprint().equals(fingerprint)) {
+            writePlain(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request");
+            return;
+        }
+        if (record.getStatusCode() == IdempotencyStore.IN_FLIGHT) {
+            writePlain(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+            return;
+        }
+
+        response.setStatus(record.getStatusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        if (record.getResponseBody() != null) {
+            byte[] body = record.getResponseBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static void writePlain(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    private static boolean isForm(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // The body was read for the fingerprint; the controller reads it again from here
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8 : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package waiter.app.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import waiter.app.entities.IdempotencyRecord;
+import waiter.app.repositories.IdempotencyRecordRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Remembers the response of every request sent with an Idempotency-Key.
+ * The idempotency_keys table is the source of truth (its primary key decides
+ * which of two concurrent requests runs); completed responses are also kept
+ * in a bounded Caffeine cache so retries are answered without a query.
+ */
+@Service
+public class IdempotencyStore {
+
+    public static final int IN_FLIGHT = 0;
+
+    private static final int CLAIM_ATTEMPTS = 3;
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final Cache<String, IdempotencyRecord> completed;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${pda.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${pda.idempotency.in-flight-timeout-seconds:120}") long inFlightTimeoutSeconds,
+                            @Value("${pda.idempotency.cache-size:10000}") long cacheSize) {
+        this.repository = repository;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.inFlightTimeout = Duration.ofSeconds(inFlightTimeoutSeconds);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(this.ttl)
+                .build();
+    }
+
+    /**
+     * Claims the key for the current request.
+     *
+     * @return null if the caller owns the key and must run the request, otherwise the
+     * existing record: completed (replay it) or {@link #IN_FLIGHT} (still running)
+     */
+    public IdempotencyRecord claim(String scopedKey, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+
+        IdempotencyRecord cached = completed.getIfPresent(scopedKey);
+        if (cached != null && cached.getCreatedAt().isAfter(now.minus(ttl))) {
+            return cached;
+        }
+
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+            try {
+                repository.claim(scopedKey, fingerprint, now);
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                // Key already taken: replay it, unless it has expired or its request died mid-way
+            }
+
+            IdempotencyRecord existing = repository.findById(scopedKey).orElse(null);
+            if (existing == null) {
+                continue;
+            }
+            if (repository.expire(scopedKey, now.minus(inFlightTimeout), now.minus(ttl)) == 0) {
+                if (existing.getStatusCode() != IN_FLIGHT) {
+                    completed.put(scopedKey, existing);
+                }
+                return existing;
+            }
+        }
+        // Lost every race for the key; report it as still running so the client retries
+        return new IdempotencyRecord(scopedKey, fingerprint, IN_FLIGHT, null, null, now);
+    }
+
+    public void complete(String scopedKey, String fingerprint, int statusCode, String contentType, String body) {
+        repository.complete(scopedKey, statusCode, contentType, body);
+        completed.put(scopedKey, new IdempotencyRecord(scopedKey, fingerprint, statusCode, contentType, body,
+                LocalDateTime.now()));
+    }
+
+    // The request failed on the server side: free the key so the retry runs again
+    public void release(String scopedKey) {
+        repository.release(scopedKey);
+    }
+
+    @Scheduled(fixedDelayString = "${pda.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        repository.deleteOlderThan(LocalDateTime.now().minus(ttl));
+    }
+
+    // Keys are per user, so two waiters generating the same key never see each other's responses
+    public static String scope(String principal, String idempotencyKey) {
+        return sha256(principal + '\n' + idempotencyKey);
+    }
+
+    // The body is part of the request: the same key with a different payload is a different request
+    public static String fingerprint(String method, String path, String query, byte[] body) {
+        return sha256(method + ' ' + path + (query == null ? "" : '?' + query) + '\n' + sha256(body));
+    }
+
+    private static String sha256(String value) {
+        return sha256(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package waiter.app.services;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -17,13 +19,31 @@ import waiter.app.utils.JwtUtil;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final Timer authenticated;
+    private final Timer rejected;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, MeterRegistry registry) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        // Time spent in this filter on requests that carry a bearer token, excluding the rest of the chain
+        this.authenticated = jwtTimer(registry, "authenticated");
+        this.rejected = jwtTimer(registry, "rejected");
+    }
+
+    private static Timer jwtTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("pda.auth.jwt")
+                .description("Bearer token verification in the JWT filter")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -37,13 +57,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String jwt = authHeader.substring(7);
-        final String username = jwtUtil.extractUsername(jwt);
+        final long start = System.nanoTime();
+        final Claims claims;
+        try {
+            final String jwt = authHeader.substring(7);
+            // One verification per request (cached across requests for the same token)
+            claims = jwtUtil.extractAllClaims(jwt);
+        } catch (RuntimeException e) {
+            rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        final String username = claims.getSubject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             // Εξαγωγή ρόλου από το token (π.χ. "WAITER")
-            String role = jwtUtil.extractClaim(jwt, claims -> claims.get("role", String.class));
+            String role = claims.get("role", String.class);
 
             // Δημιουργία granted authority με βάση το ρόλο
             List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
@@ -54,14 +83,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            // Logging για έλεγχο
-            System.out.println("🛡️ JWT AUTH FILTER: jwt = " + jwt);
-            System.out.println("→ Username: " + username);
-            System.out.println("→ Role from token: " + role);
-
             // Θέσε το authentication στο security context
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
+        authenticated.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,212 @@
+package waiter.app.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.KitchenBoardDto;
+import waiter.app.dto.KitchenTicketDto;
+import waiter.app.entities.Order;
+import waiter.app.entities.OrderItem;
+import waiter.app.events.OrderChangedEvent;
+import waiter.app.repositories.OrderRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * NEW and IN_PROGRESS orders for the kitchen screen, oldest first, held in
+ * memory. Reads never touch the database or take a lock: tickets are
+ * immutable and live in a skip list ordered by (createdAt, orderId).
+ * Filled at startup and refreshed from the database after committed order
+ * changes. A listener only marks the order as pending. One background task
+ * then reloads every pending order in a single query (the entity graph
+ * brings the items), so the request that made the change never waits for
+ * it. A refresh only wins if it saw a newer order version.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KitchenBoard {
+
+    private static final Set<OrderStatus> ON_BOARD = Set.of(OrderStatus.NEW, OrderStatus.IN_PROGRESS);
+
+    private static final int REFRESH_BATCH_SIZE = 200;
+
+    private static final Comparator<TicketKey> AGE_ORDER = Comparator
+            .comparing(TicketKey::createdAt)
+            .thenComparingLong(TicketKey::orderId);
+
+    private final OrderRepository orderRepository;
+
+    private final ConcurrentNavigableMap<TicketKey, KitchenTicketDto> tickets = new ConcurrentSkipListMap<>(AGE_ORDER);
+    // Latest version seen per order (also for orders that left the board), so a late refresh cannot undo a newer one
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    // Orders changed since the last refresh pass; the pass runs on its own thread
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kitchen-board-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Also a repair hook: tickets the query no longer returns are re-checked one by one, never just dropped
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Set<Long> open = new HashSet<>();
+        for (Order order : orderRepository.findByStatusInOrderByCreatedAtAsc(ON_BOARD)) {
+            open.add(order.getId());
+            install(order.getId(), order);
+        }
+        List<Long> gone = new ArrayList<>();
+        for (TicketKey key : tickets.keySet()) {
+            if (!open.contains(key.orderId())) {
+                gone.add(key.orderId());
+            }
+        }
+        reload(gone);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!ON_BOARD.contains(event.getStatus()) && !slots.containsKey(event.getOrderId())) {
+            return; // closed order that was never on the board
+        }
+        pending.add(event.getOrderId());
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.execute(this::refreshPending);
+        }
+    }
+
+    /**
+     * Reloads every order changed since the last pass. Runs on the refresh
+     * thread; a caller on another thread returns once its changes are on the board.
+     */
+    public void refreshPending() {
+        refreshLock.lock();
+        try {
+            // Changes that arrive from here on schedule another pass
+            refreshScheduled.set(false);
+            List<Long> orderIds = new ArrayList<>(pending);
+            pending.removeAll(orderIds);
+            reload(orderIds);
+        } catch (RuntimeException e) {
+            // The board stays behind for these orders until their next change or a rebuild
+            log.warn("Kitchen board refresh failed", e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    // For deletes that bypass OrderService (and so publish no event)
+    public void remove(Long orderId) {
+        install(orderId, null);
+    }
+
+    // Forget orders that left the board; their versions only matter while a late refresh could still arrive
+    @Scheduled(fixedDelayString = "${pda.kitchen.prune-interval-ms:600000}", initialDelayString = "${pda.kitchen.prune-interval-ms:600000}")
+    public void pruneClosed() {
+        slots.entrySet().removeIf(entry -> entry.getValue().key == null);
+    }
+
+    /**
+     * @param statuses only tickets in these statuses (null or empty = all on the board)
+     */
+    public KitchenBoardDto view(Set<OrderStatus> statuses) {
+        long current = version.get();
+        List<KitchenTicketDto> view = new ArrayList<>(tickets.size());
+        for (KitchenTicketDto ticket : tickets.values()) {
+            if (statuses == null || statuses.isEmpty() || statuses.contains(ticket.getStatus())) {
+                view.add(ticket);
+            }
+        }
+        return new KitchenBoardDto(current, view);
+    }
+
+    public int size() {
+        return tickets.size();
+    }
+
+    private void reload(List<Long> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> batch = orderIds.subList(from, Math.min(orderIds.size(), from + REFRESH_BATCH_SIZE));
+            Map<Long, Order> loaded = new HashMap<>();
+            for (Order order : orderRepository.findByIdIn(batch)) {
+                loaded.put(order.getId(), order);
+            }
+            for (Long orderId : batch) {
+                install(orderId, loaded.get(orderId));
+            }
+        }
+    }
+
+    // order == null: the order no longer exists
+    private void install(Long orderId, Order order) {
+        KitchenTicketDto ticket = (order != null && ON_BOARD.contains(order.getStatus())) ? toTicket(order) : null;
+        long orderVersion = order != null ? order.getVersion() : Long.MAX_VALUE;
+
+        slots.compute(orderId, (id, current) -> {
+            if (current != null && current.version >= orderVersion) {
+                return current; // stale read
+            }
+            if (current != null && current.key != null) {
+                tickets.remove(current.key);
+            }
+            TicketKey key = null;
+            if (ticket != null) {
+                key = new TicketKey(ticket.getCreatedAt() == null ? LocalDateTime.MIN : ticket.getCreatedAt(), orderId);
+                tickets.put(key, ticket);
+            }
+            if (key != null || (current != null && current.key != null)) {
+                version.incrementAndGet();
+            }
+            return (ticket == null && order == null) ? null : new Slot(orderVersion, key);
+        });
+    }
+
+    private KitchenTicketDto toTicket(Order order) {
+        List<KitchenTicketDto.Line> lines = order.getItems() == null ? List.of() : order.getItems().stream()
+                .filter(item -> item.getMenuItem() != null)
+                .sorted(Comparator.comparing(OrderItem::getId))
+                .map(item -> new KitchenTicketDto.Line(item.getMenuItem().getId(), item.getMenuItem().getName(),
+                        item.getQuantity(), item.getComments()))
+                .collect(Collectors.toUnmodifiableList());
+        return new KitchenTicketDto(order.getId(), order.getCreatedAt(), order.getStatus(), order.getWaiterUsername(), lines);
+    }
+
+    private record TicketKey(LocalDateTime createdAt, long orderId) {
+    }
+
+    private record Slot(long version, TicketKey key) {
+    }
+}
@@ -1,12 +1,18 @@
 package waiter.app.services;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import waiter.app.dto.MenuCatalogStatsDto;
 import waiter.app.dto.MenuItemDto;
 import waiter.app.entities.MenuItem;
 import waiter.app.repositories.MenuItemRepository;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,9 +21,21 @@ public class MenuItemService {
 
     private final MenuItemRepository menuItemRepository;
 
+    // The menu changes a few times a day; readers never touch the database
+    private final AtomicReference<MenuSnapshot> catalog = new AtomicReference<>(MenuSnapshot.EMPTY);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @PostConstruct
+    public void loadCatalog() {
+        refreshCatalog();
+    }
+
     public List<MenuItemDto> getAllMenuItems() {
-        return menuItemRepository.findAll()
+        return catalog.get().entries()
                 .stream()
+                .sorted(Comparator.comparing(MenuSnapshot.Entry::getId))
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
@@ -29,10 +47,59 @@ public class MenuItemService {
         menuItem.setAvailable(dto.isAvailable());
 
         MenuItem saved = menuItemRepository.save(menuItem);
+        refreshCatalog();
         return toDto(saved);
     }
 
+    /**
+     * Price and availability lookup for order lines. Items missing from the
+     * snapshot (e.g. created by another instance) are read from the database
+     * once and trigger a rebuild. Returns null if the item does not exist.
+     */
+    public MenuSnapshot.Entry findMenuEntry(Long menuItemId) {
+        MenuSnapshot.Entry entry = catalog.get().get(menuItemId);
+        if (entry != null) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        if (menuItemId == null || menuItemRepository.findById(menuItemId).isEmpty()) {
+            return null;
+        }
+        return refreshCatalog().get(menuItemId);
+    }
+
+    /**
+     * Snapshot-only lookup for display purposes (no counters, no database).
+     */
+    public MenuSnapshot.Entry peekMenuEntry(Long menuItemId) {
+        return catalog.get().get(menuItemId);
+    }
+
+    public MenuCatalogStatsDto getCatalogStats() {
+        MenuSnapshot current = catalog.get();
+        return new MenuCatalogStatsDto(current.getVersion(), current.getBuiltAt(), current.size(),
+                hits.sum(), misses.sum());
+    }
+
+    // Serialized so two concurrent mutations cannot publish versions out of order.
+    // A lock, not synchronized: a virtual thread blocked on the query inside a monitor pins its carrier.
+    public MenuSnapshot refreshCatalog() {
+        refreshLock.lock();
+        try {
+            MenuSnapshot next = new MenuSnapshot(catalog.get().getVersion() + 1, menuItemRepository.findAll());
+            catalog.set(next);
+            return next;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
     private MenuItemDto toDto(MenuItem menuItem) {
         return new MenuItemDto(menuItem.getId(), menuItem.getName(), menuItem.getPrice(), menuItem.isAvailable());
     }
+
+    private MenuItemDto toDto(MenuSnapshot.Entry entry) {
+        return new MenuItemDto(entry.getId(), entry.getName(), entry.getPrice(), entry.isAvailable());
+    }
 }
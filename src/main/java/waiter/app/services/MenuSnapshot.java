@@ -0,0 +1,69 @@
+package waiter.app.services;
+
+import lombok.Value;
+import waiter.app.entities.MenuItem;
+import waiter.app.utils.Money;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned copy of the menu. A new instance is built on every
+ * menu change and swapped in atomically by {@link MenuItemService}.
+ */
+public final class MenuSnapshot {
+
+    public static final MenuSnapshot EMPTY = new MenuSnapshot(0, List.of());
+
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final Map<Long, Entry> entries;
+
+    MenuSnapshot(long version, Collection<MenuItem> menuItems) {
+        Map<Long, Entry> byId = new HashMap<>(menuItems.size() * 2);
+        for (MenuItem menuItem : menuItems) {
+            byId.put(menuItem.getId(), Entry.of(menuItem));
+        }
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+        this.entries = Collections.unmodifiableMap(byId);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public Entry get(Long menuItemId) {
+        return entries.get(menuItemId);
+    }
+
+    public Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Value
+    public static class Entry {
+        Long id;
+        String name;
+        Double price;
+        long priceMinor;
+        boolean available;
+
+        static Entry of(MenuItem menuItem) {
+            return new Entry(menuItem.getId(), menuItem.getName(), menuItem.getPrice(),
+                    Money.toMinor(menuItem.getPrice()), menuItem.isAvailable());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package waiter.app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.OrderDto;
+import waiter.app.mapper.OrderMapper;
+import waiter.app.repositories.ArchivedOrderRepository;
+import waiter.app.repositories.OrderItemRepository;
+import waiter.app.repositories.OrderRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves PAID, CANCELLED and REFUNDED orders whose last change (creation,
+ * payment or refund) is older than pda.archive.min-age-days from
+ * orders/order_items into orders_archive/order_items_archive, so the hot
+ * tables only hold roughly the open orders plus recent history. Archived
+ * orders are read-only: the min age is also the refund window.
+ * Work is done in small chunks, each its own short transaction, with a pause
+ * between chunks and a cap per run, so service traffic never waits long on it.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final List<String> CLOSED_STATUSES = List.of(
+            OrderStatus.PAID.name(), OrderStatus.CANCELLED.name(), OrderStatus.REFUNDED.name());
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderMapper orderMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final boolean enabled;
+    private final int minAgeDays;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final int maxChunksPerRun;
+
+    public OrderArchiveService(ArchivedOrderRepository archivedOrderRepository,
+                               OrderRepository orderRepository,
+                               OrderItemRepository orderItemRepository,
+                               OrderMapper orderMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${pda.archive.enabled:true}") boolean enabled,
+                               @Value("${pda.archive.min-age-days:90}") int minAgeDays,
+                               @Value("${pda.archive.chunk-size:200}") int chunkSize,
+                               @Value("${pda.archive.pause-ms:500}") long pauseMs,
+                               @Value("${pda.archive.max-chunks-per-run:100}") int maxChunksPerRun) {
+        if (minAgeDays < 1) {
+            throw new IllegalArgumentException("pda.archive.min-age-days must be at least 1");
+        }
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderMapper = orderMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAgeDays = minAgeDays;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${pda.archive.interval-ms:600000}",
+            initialDelayString = "${pda.archive.initial-delay-ms:120000}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveClosedOrders();
+        }
+    }
+
+    /**
+     * Runs up to max-chunks-per-run chunks, stopping early once a chunk comes
+     * back short. Returns the number of orders archived.
+     */
+    public int archiveClosedOrders() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            LocalDateTime cutoff = archiveCutoff();
+            int archived = 0;
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                archived += moved;
+                if (moved < chunkSize) {
+                    break;
+                }
+                Thread.sleep(pauseMs);
+            }
+            return archived;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Orders last created, paid or refunded before this time may already be
+     * archived (null when archival is off).
+     */
+    public LocalDateTime archiveCutoff() {
+        return enabled ? LocalDateTime.now().minusDays(minAgeDays) : null;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isArchived(Long id) {
+        return archivedOrderRepository.existsById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> getArchivedOrderETag(Long id) {
+        // Archived orders never change, the "a" keeps their tags apart from live ones
+        return archivedOrderRepository.findVersionById(id)
+                .map(version -> "\"a" + id + "-" + version + "\"");
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderDto> findArchivedOrder(Long id) {
+        return archivedOrderRepository.findById(id).map(orderMapper::toDto);
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = archivedOrderRepository.lockArchivableIds(CLOSED_STATUSES, cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedOrderRepository.copyOrders(ids, LocalDateTime.now());
+        archivedOrderRepository.copyItems(ids);
+        orderItemRepository.deleteByOrderIds(ids);
+        orderRepository.deleteByIds(ids);
+        return ids.size();
+    }
+}
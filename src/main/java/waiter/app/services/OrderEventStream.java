@@ -0,0 +1,227 @@
+package waiter.app.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import waiter.app.Enums.OrderEventType;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.OrderEventDto;
+import waiter.app.events.OrderChangedEvent;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed order changes out to Server-Sent Events subscribers.
+ * Every subscriber has its own bounded buffer and is drained by its own task,
+ * so a slow tablet only ever delays itself; if its buffer overflows it is
+ * disconnected and resumes from its last event id on reconnect.
+ *
+ * <p>Event ids are "epoch-sequence". The epoch changes on every boot, so an id
+ * from before a restart is never mistaken for a current one: that client gets
+ * RESET and reloads.
+ */
+@Service
+public class OrderEventStream {
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+
+    // Ring of the most recent events for Last-Event-ID resumption
+    private final OrderEventDto[] history;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private long lastEventId;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "order-stream-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderEventStream(@Value("${pda.orders.stream.buffer-size:256}") int bufferSize,
+                            @Value("${pda.orders.stream.history-size:4096}") int historySize,
+                            @Value("${pda.orders.stream.max-subscribers:200}") int maxSubscribers,
+                            @Value("${pda.orders.stream.timeout-ms:1800000}") long timeoutMs) {
+        if (bufferSize < 1 || historySize < 1) {
+            throw new IllegalArgumentException("pda.orders.stream.buffer-size and history-size must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.history = new OrderEventDto[historySize];
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        synchronized (this) {
+            OrderEventDto dto = new OrderEventDto(++lastEventId, event.getType(), event.getOrderId(),
+                    event.getStatus(), event.getWaiterUsername(), event.getMenuItemId(),
+                    event.getQuantity(), event.getOccurredAt());
+            history[(int) (dto.getEventId() % history.length)] = dto;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(dto);
+            }
+        }
+    }
+
+    /**
+     * Opens a subscription. Returns null when the subscriber limit is reached.
+     *
+     * @param statuses    only events for orders in these statuses (null = all)
+     * @param waiter      only events for this waiter's orders (null = all)
+     * @param lastSeenId  Last-Event-ID the client has seen (null = live only)
+     */
+    public SseEmitter subscribe(Set<OrderStatus> statuses, String waiter, String lastSeenId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs), statuses, waiter);
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+
+        synchronized (this) {
+            if (lastSeenId != null) {
+                Long resumeAfter = sequenceOf(lastSeenId);
+                long oldest = Math.max(1, lastEventId - history.length + 1);
+                if (resumeAfter == null || resumeAfter > lastEventId || resumeAfter + 1 < oldest
+                        || lastEventId - resumeAfter > bufferSize) {
+                    // Id from another boot or too far behind: the client must reload its state
+                    subscriber.reset();
+                } else {
+                    for (long id = resumeAfter + 1; id <= lastEventId; id++) {
+                        subscriber.offer(history[(int) (id % history.length)]);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber.emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public String eventId(long sequence) {
+        return epoch + '-' + sequence;
+    }
+
+    // Sequence of an id issued by this boot, else null
+    private Long sequenceOf(String eventId) {
+        String prefix = epoch + '-';
+        if (!eventId.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<OrderStatus> statuses;
+        private final String waiter;
+        private final ArrayBlockingQueue<OrderEventDto> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<OrderStatus> statuses, String waiter) {
+            this.emitter = emitter;
+            this.statuses = (statuses == null || statuses.isEmpty()) ? null : statuses;
+            this.waiter = waiter;
+        }
+
+        private boolean accepts(OrderEventDto event) {
+            return (statuses == null || statuses.contains(event.getStatus()) || mayLeave(event))
+                    && (waiter == null || waiter.equals(event.getWaiterUsername()));
+        }
+
+        // A transition that can start in a watched status may take an order out of the filter:
+        // send it so the client drops the order (one it never had is ignored)
+        private boolean mayLeave(OrderEventDto event) {
+            if (event.getType() != OrderEventType.STATUS_CHANGED) {
+                return false;
+            }
+            for (OrderStatus source : OrderStatus.sourcesOf(event.getStatus())) {
+                if (statuses.contains(source)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void offer(OrderEventDto event) {
+            if (closed || !accepts(event)) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                // Slow consumer: drop it, the client reconnects with Last-Event-ID
+                close();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // Called before the emitter is returned, so Spring buffers it ahead of any live event
+        private void reset() {
+            try {
+                emitter.send(SseEmitter.event().name("RESET").data("Event history unavailable, reload orders"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                OrderEventDto event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(eventId(event.getEventId()))
+                            .name(event.getType().name())
+                            .data(event));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed && !buffer.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            buffer.clear();
+            subscribers.remove(this);
+        }
+    }
+}
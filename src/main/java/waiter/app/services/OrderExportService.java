@@ -0,0 +1,259 @@
+package waiter.app.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.OrderExportRow;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.utils.DateRanges;
+import waiter.app.utils.Money;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every order line in a date range (archived orders first, then the
+ * live tables) straight from a forward-only cursor to the response. Rows are
+ * scalar projections (nothing is managed by the session) and the writer is
+ * flushed as its buffer fills, so memory use does not depend on the size of
+ * the export.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String[] COLUMNS = {
+            "order_id", "created_at", "status", "waiter", "payment_method", "paid_at", "refunded_at",
+            "order_total", "line_id", "menu_item_id", "menu_item", "quantity", "unit_price", "line_total"
+    };
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int fetchSize;
+    private final int clearEvery;
+    private final int maxRangeDays;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${pda.export.fetch-size:-2147483648}") int fetchSize,
+                              @Value("${pda.export.clear-every:1000}") int clearEvery,
+                              @Value("${pda.export.max-range-days:366}") int maxRangeDays) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.clearEvery = clearEvery;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // Fails fast on bad parameters, before the response is committed
+    public void validate(LocalDate from, LocalDate to) {
+        DateRanges.check(from, to, maxRangeDays);
+    }
+
+    /**
+     * @param from     first day (order creation), inclusive
+     * @param to       last day, inclusive
+     * @param statuses only these statuses (null or empty = all)
+     */
+    public void export(LocalDate from, LocalDate to, Collection<OrderStatus> statuses, Format format, OutputStream out) {
+        validate(from, to);
+        Collection<OrderStatus> filter = (statuses == null || statuses.isEmpty())
+                ? EnumSet.allOf(OrderStatus.class)
+                : statuses;
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+                // One cursor at a time: a streaming MySQL connection cannot run a second query meanwhile.
+                // Both read the same snapshot, so an order archived in between is exported exactly once.
+                try (Stream<OrderExportRow> archived = orderRepository.streamArchivedExportRows(start, end, filter, fetchSize)) {
+                    writeAll(archived.iterator(), writer);
+                }
+                try (Stream<OrderExportRow> live = orderRepository.streamExportRows(start, end, filter, fetchSize)) {
+                    writeAll(live.iterator(), writer);
+                }
+                writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeAll(Iterator<OrderExportRow> rows, RowWriter writer) throws IOException {
+        long count = 0;
+        while (rows.hasNext()) {
+            writer.write(rows.next());
+            // Projections are not managed, but keep the session empty whatever the query turns into
+            if (++count % clearEvery == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    private interface RowWriter {
+        void write(OrderExportRow row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(OrderExportRow row) throws IOException {
+            writer.write(String.valueOf(row.getOrderId()));
+            writer.write(',');
+            writer.write(text(row.getCreatedAt()));
+            writer.write(',');
+            writer.write(text(row.getStatus()));
+            writer.write(',');
+            writer.write(csv(row.getWaiterUsername()));
+            writer.write(',');
+            writer.write(text(row.getPaymentMethod()));
+            writer.write(',');
+            writer.write(text(row.getPaidAt()));
+            writer.write(',');
+            writer.write(text(row.getRefundedAt()));
+            writer.write(',');
+            writer.write(amount(row.getTotalAmountMinor()));
+            writer.write(',');
+            writer.write(text(row.getLineId()));
+            writer.write(',');
+            writer.write(text(row.getMenuItemId()));
+            writer.write(',');
+            writer.write(csv(row.getMenuItemName()));
+            writer.write(',');
+            writer.write(text(row.getQuantity()));
+            writer.write(',');
+            writer.write(amount(row.getUnitPriceMinor()));
+            writer.write(',');
+            writer.write(amount(lineTotal(row)));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.json = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(OrderExportRow row) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField(COLUMNS[0], row.getOrderId());
+            json.writeStringField(COLUMNS[1], textOrNull(row.getCreatedAt()));
+            json.writeStringField(COLUMNS[2], textOrNull(row.getStatus()));
+            json.writeStringField(COLUMNS[3], row.getWaiterUsername());
+            json.writeStringField(COLUMNS[4], textOrNull(row.getPaymentMethod()));
+            json.writeStringField(COLUMNS[5], textOrNull(row.getPaidAt()));
+            json.writeStringField(COLUMNS[6], textOrNull(row.getRefundedAt()));
+            writeAmount(json, COLUMNS[7], row.getTotalAmountMinor());
+            writeLong(json, COLUMNS[8], row.getLineId());
+            writeLong(json, COLUMNS[9], row.getMenuItemId());
+            json.writeStringField(COLUMNS[10], row.getMenuItemName());
+            writeLong(json, COLUMNS[11], row.getQuantity() == null ? null : row.getQuantity().longValue());
+            writeAmount(json, COLUMNS[12], row.getUnitPriceMinor());
+            writeAmount(json, COLUMNS[13], lineTotal(row));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+
+    private static Long lineTotal(OrderExportRow row) {
+        if (row.getQuantity() == null || row.getUnitPriceMinor() == null) {
+            return null;
+        }
+        return row.getQuantity() * row.getUnitPriceMinor();
+    }
+
+    private static void writeAmount(JsonGenerator json, String field, Long minor) throws IOException {
+        if (minor == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, Money.toMajor(minor));
+        }
+    }
+
+    private static void writeLong(JsonGenerator json, String field, Long value) throws IOException {
+        if (value == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private static String amount(Long minor) {
+        return minor == null ? "" : Money.toMajor(minor).toPlainString();
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String textOrNull(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    // Free text only (names): a leading =, +, -, @, tab or CR would make a spreadsheet evaluate
+    // the cell as a formula, so such values are prefixed with ' and read back as plain text
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,56 @@
+package waiter.app.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import waiter.app.Enums.PaymentMethod;
+import waiter.app.utils.AfterCommit;
+import waiter.app.utils.Money;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Business counters for OrderService. Counted after commit, so a rolled back
+ * payment is never reported as revenue. Amounts are in major units.
+ */
+@Component
+public class OrderMetrics {
+
+    private final Counter created;
+    private final Map<PaymentMethod, Counter> paid = new EnumMap<>(PaymentMethod.class);
+    private final Map<PaymentMethod, Counter> revenue = new EnumMap<>(PaymentMethod.class);
+    private final Counter refunded;
+    private final Counter refundedAmount;
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.created = Counter.builder("pda.orders.created").description("Orders created").register(registry);
+        for (PaymentMethod method : PaymentMethod.values()) {
+            paid.put(method, Counter.builder("pda.orders.paid").description("Orders paid")
+                    .tag("method", method.name()).register(registry));
+            revenue.put(method, Counter.builder("pda.orders.revenue").description("Amount paid")
+                    .baseUnit("currency").tag("method", method.name()).register(registry));
+        }
+        this.refunded = Counter.builder("pda.orders.refunded").description("Orders refunded").register(registry);
+        this.refundedAmount = Counter.builder("pda.orders.refunded.amount").description("Amount refunded")
+                .baseUnit("currency").register(registry);
+    }
+
+    public void orderCreated() {
+        AfterCommit.run(created::increment);
+    }
+
+    public void orderPaid(PaymentMethod method, long amountMinor) {
+        AfterCommit.run(() -> {
+            paid.get(method).increment();
+            revenue.get(method).increment(Money.toMajor(amountMinor).doubleValue());
+        });
+    }
+
+    public void orderRefunded(long amountMinor) {
+        AfterCommit.run(() -> {
+            refunded.increment();
+            refundedAmount.increment(Money.toMajor(amountMinor).doubleValue());
+        });
+    }
+}
@@ -1,23 +1,46 @@
 package waiter.app.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import waiter.app.Enums.BulkStatusOutcome;
+import waiter.app.Enums.OrderEventType;
 import waiter.app.Enums.OrderStatus;
 import waiter.app.Enums.PaymentMethod;
 import waiter.app.dto.AddOrderItemRequest;
+import waiter.app.dto.BulkStatusResultDto;
 import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderItemDeltaDto;
+import waiter.app.dto.OrderItemDto;
+import waiter.app.dto.OrderPageDto;
+import waiter.app.dto.OrderSearchCriteria;
 import waiter.app.dto.RemoveOrderItemRequest;
-import waiter.app.entities.MenuItem;
 import waiter.app.entities.Order;
 import waiter.app.entities.OrderItem;
+import waiter.app.events.OrderChangedEvent;
+import waiter.app.exceptions.OrderConflictException;
+import waiter.app.journal.OrderJournal;
+import waiter.app.journal.OrderJournalEntry;
 import waiter.app.mapper.OrderMapper;
 import waiter.app.repositories.MenuItemRepository;
 import waiter.app.repositories.OrderItemRepository;
 import waiter.app.repositories.OrderRepository;
+import waiter.app.utils.OrderCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,20 +50,110 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final MenuItemRepository menuItemRepository;
+    private final MenuItemService menuItemService;
     private final OrderMapper orderMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SalesRollupService salesRollupService;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderJournal orderJournal;
+    private final OrderMetrics orderMetrics;
 
-    public List<OrderDto> getAllOrders() {
-        return orderRepository.findAll()
-                .stream()
+    @Value("${pda.orders.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pda.orders.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${pda.orders.bulk.max-size:100}")
+    private int maxBulkSize;
+
+    @Transactional(readOnly = true)
+    public OrderPageDto getOrders(String cursor, Integer limit) {
+        int size = pageSize(limit);
+
+        // Fetch one extra row to know whether another page exists
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findFirstPage(pageable);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            orders = orderRepository.findPageAfter(after.getCreatedAt(), after.getId(), pageable);
+        }
+        return toPage(orders, size);
+    }
+
+    // Same paging contract as getOrders, with optional filters
+    @Transactional(readOnly = true)
+    public OrderPageDto searchOrders(OrderSearchCriteria criteria, String cursor, Integer limit) {
+        if (criteria.getCreatedFrom() != null && criteria.getCreatedTo() != null
+                && !criteria.getCreatedFrom().isBefore(criteria.getCreatedTo())) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (criteria.getMinAmountMinor() != null && criteria.getMaxAmountMinor() != null
+                && criteria.getMinAmountMinor() > criteria.getMaxAmountMinor()) {
+            throw new IllegalArgumentException("minAmount must not exceed maxAmount");
+        }
+        int size = pageSize(limit);
+        OrderCursor after = (cursor == null || cursor.isBlank()) ? null : OrderCursor.decode(cursor);
+        return toPage(orderRepository.search(criteria, after, size + 1), size);
+    }
+
+    private int pageSize(Integer limit) {
+        int size = (limit == null) ? defaultPageSize : limit;
+        if (size < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Expects up to size + 1 rows; the extra one only signals a next page
+    private OrderPageDto toPage(List<Order> orders, int size) {
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            Order last = orders.get(size - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<OrderDto> items = orders.stream()
                 .map(orderMapper::toDto)
                 .collect(Collectors.toList());
+        return new OrderPageDto(items, nextCursor);
     }
 
+    // Falls back to the archive for closed orders moved out of the hot tables
     @Transactional(readOnly = true)
     public OrderDto getOrderDtoById(Long id) {
-        Order order = orderRepository.findById(id)
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isPresent()) {
+            return toDto(order.get());
+        }
+        return orderArchiveService.findArchivedOrder(id)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-        return toDto(order);
+    }
+
+    // Items and menu items are batch-fetched, so this is three queries for any number of orders
+    @Transactional(readOnly = true)
+    public List<OrderDto> getOrderDtosByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Order> orders = orderRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return ids.stream()
+                .map(orders::get)
+                .filter(Objects::nonNull)
+                .map(orderMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    // Strong ETag from the version column only; the order graph is not loaded
+    @Transactional(readOnly = true)
+    public Optional<String> getOrderETag(Long id) {
+        Optional<String> etag = orderRepository.findVersionById(id)
+                .map(version -> "\"o" + id + "-" + version + "\"");
+        return etag.isPresent() ? etag : orderArchiveService.getArchivedOrderETag(id);
     }
 
     @Transactional
@@ -49,38 +162,109 @@ public class OrderService {
         order.setStatus(OrderStatus.NEW);
         order.setCreatedAt(LocalDateTime.now());
         order.setWaiterUsername(waiterName);
-        order.setTotalAmount(0.0);
-
-        Order savedOrder = orderRepository.save(order);
 
-        List<OrderItem> items = orderDto.getItems()
-                .stream()
-                .map(itemDto -> {
-                    MenuItem menuItem = menuItemRepository.findById(itemDto.getMenuItemId())
-                            .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
-
-                    OrderItem orderItem = new OrderItem();
-                    orderItem.setOrder(savedOrder);
-                    orderItem.setMenuItem(menuItem);
-                    orderItem.setQuantity(itemDto.getQuantity());
-                    orderItem.setComments(itemDto.getComments());
-                    return orderItemRepository.save(orderItem);
-                }).collect(Collectors.toList());
+        // One line per menu item (uk_order_items_order_menu_item): repeated entries are merged
+        Map<Long, OrderItem> items = new LinkedHashMap<>();
+        for (OrderItemDto itemDto : orderDto.getItems()) {
+            // Price and availability come from the in-memory menu catalog
+            MenuSnapshot.Entry menuEntry = requireAvailableMenuEntry(itemDto.getMenuItemId());
+
+            OrderItem merged = items.get(menuEntry.getId());
+            if (merged != null) {
+                merged.setQuantity(merged.getQuantity() + itemDto.getQuantity());
+                merged.setComments(mergeComments(merged.getComments(), itemDto.getComments()));
+                continue;
+            }
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setMenuItem(menuItemRepository.getReferenceById(menuEntry.getId()));
+            orderItem.setQuantity(itemDto.getQuantity());
+            orderItem.setComments(itemDto.getComments());
+            orderItem.setUnitPriceMinor(menuEntry.getPriceMinor());
+            items.put(menuEntry.getId(), orderItem);
+        }
 
-        savedOrder.setItems(items);
-        savedOrder.setTotalAmount(
-                items.stream().mapToDouble(i -> i.getQuantity() * i.getMenuItem().getPrice()).sum()
-        );
+        order.setItems(new ArrayList<>(items.values()));
+        order.setTotalAmountMinor(order.computeTotalAmountMinor());
 
-        return orderMapper.toDto(orderRepository.save(savedOrder));
+        // Single persist; items cascade and are flushed as one JDBC batch at commit
+        Order saved = orderRepository.save(order);
+        publish(saved, OrderEventType.CREATED, null, 0);
+        orderJournal.append(OrderJournalEntry.created(saved));
+        orderMetrics.orderCreated();
+        return orderMapper.toDto(saved);
     }
 
     @Transactional
     public OrderDto updateStatus(Long orderId, OrderStatus status) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-        order.setStatus(status);
-        return orderMapper.toDto(orderRepository.save(order));
+        if (status == OrderStatus.PAID || status == OrderStatus.REFUNDED) {
+            throw new IllegalArgumentException("Use the pay or refund endpoint to set status " + status);
+        }
+        if (orderRepository.transition(orderId, OrderStatus.sourcesOf(status), status) == 0) {
+            throw transitionConflict(orderId, "Cannot change order status to " + status);
+        }
+        return afterTransition(orderId);
+    }
+
+    /**
+     * Applies many status changes in one transaction: one select for the current
+     * statuses and one conditional update per distinct target status.
+     * Returns one result per requested order, in request order.
+     */
+    @Transactional
+    public List<BulkStatusResultDto> updateStatuses(Map<Long, OrderStatus> changes) {
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("No status changes given");
+        }
+        if (changes.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " orders per batch");
+        }
+
+        Map<Long, OrderRepository.OrderStatusView> current = orderRepository.findStatusViews(changes.keySet())
+                .stream()
+                .collect(Collectors.toMap(OrderRepository.OrderStatusView::getId, Function.identity()));
+
+        Map<Long, BulkStatusResultDto> results = new LinkedHashMap<>();
+        Map<OrderStatus, List<Long>> eligibleByTarget = new EnumMap<>(OrderStatus.class);
+        changes.forEach((orderId, target) -> {
+            OrderRepository.OrderStatusView view = current.get(orderId);
+            if (target == OrderStatus.PAID || target == OrderStatus.REFUNDED) {
+                results.put(orderId, new BulkStatusResultDto(orderId, BulkStatusOutcome.REJECTED,
+                        view == null ? null : view.getStatus(), "Use the pay or refund endpoint to set status " + target));
+            } else if (view == null) {
+                results.put(orderId, new BulkStatusResultDto(orderId, BulkStatusOutcome.NOT_FOUND, null, "Order not found"));
+            } else if (!view.getStatus().canTransitionTo(target)) {
+                results.put(orderId, new BulkStatusResultDto(orderId, BulkStatusOutcome.CONFLICT, view.getStatus(),
+                        "Cannot change order status from " + view.getStatus() + " to " + target));
+            } else {
+                results.put(orderId, null); // keeps request order
+                eligibleByTarget.computeIfAbsent(target, t -> new ArrayList<>()).add(orderId);
+            }
+        });
+
+        eligibleByTarget.forEach((target, orderIds) -> {
+            int updated = orderRepository.transitionAll(orderIds, OrderStatus.sourcesOf(target), target);
+            Map<Long, OrderStatus> after = updated == orderIds.size()
+                    ? null
+                    : orderRepository.findStatusViews(orderIds).stream()
+                    .collect(Collectors.toMap(OrderRepository.OrderStatusView::getId, OrderRepository.OrderStatusView::getStatus));
+
+            for (Long orderId : orderIds) {
+                OrderStatus status = after == null ? target : after.get(orderId);
+                if (status == target) {
+                    results.put(orderId, new BulkStatusResultDto(orderId, BulkStatusOutcome.UPDATED, target, null));
+                    eventPublisher.publishEvent(new OrderChangedEvent(orderId, OrderEventType.STATUS_CHANGED, target,
+                            current.get(orderId).getWaiterUsername(), null, 0, LocalDateTime.now()));
+                    orderJournal.append(OrderJournalEntry.statusChanged(orderId, target));
+                } else {
+                    // Changed concurrently between the read and the update
+                    results.put(orderId, new BulkStatusResultDto(orderId, BulkStatusOutcome.CONFLICT, status,
+                            "Order was modified concurrently"));
+                }
+            }
+        });
+
+        return new ArrayList<>(results.values());
     }
 
     @Transactional
@@ -89,124 +273,208 @@ public class OrderService {
             throw new IllegalArgumentException("Payment method must be specified (CARD or CASH)");
         }
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-
-        if (order.getStatus() != OrderStatus.READY) {
-            throw new IllegalStateException("Only orders with status READY can be paid");
+        // totalAmountMinor is kept current by create/add/remove, so no item graph is needed here
+        int updated = orderRepository.transitionToPaid(orderId, OrderStatus.sourcesOf(OrderStatus.PAID),
+                OrderStatus.PAID, paymentMethod, LocalDateTime.now());
+        if (updated == 0) {
+            throw transitionConflict(orderId, "Only orders with status READY can be paid");
         }
-
-        double total = order.getItems().stream()
-                .mapToDouble(item -> item.getMenuItem().getPrice() * item.getQuantity())
-                .sum();
-
-        order.setPaymentMethod(paymentMethod);
-        order.setTotalAmount(total);
-        order.setStatus(OrderStatus.PAID);
-
-        return orderMapper.toDto(orderRepository.save(order));
+        Order order = reloadAfterTransition(orderId);
+        salesRollupService.recordPayment(order);
+        orderJournal.append(OrderJournalEntry.paid(order));
+        orderMetrics.orderPaid(order.getPaymentMethod(), order.getTotalAmountMinor());
+        return orderMapper.toDto(order);
     }
 
     @Transactional
     public OrderDto cancelOrder(Long orderId, String username) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-
-        if (order.getStatus() == OrderStatus.PAID || order.getStatus() == OrderStatus.REFUNDED) {
-            throw new IllegalStateException("Cannot cancel a paid or refunded order");
+        int updated = orderRepository.transition(orderId, OrderStatus.sourcesOf(OrderStatus.CANCELLED),
+                OrderStatus.CANCELLED);
+        if (updated == 0) {
+            throw transitionConflict(orderId, "Cannot cancel a paid, refunded or already cancelled order");
         }
-
-        order.setStatus(OrderStatus.CANCELLED);
-        return orderMapper.toDto(orderRepository.save(order));
+        return afterTransition(orderId);
     }
 
     @Transactional
     public OrderDto refundOrder(Long orderId, String adminUsername, String reason) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-
-        if (order.getStatus() != OrderStatus.PAID) {
-            throw new IllegalStateException("Only PAID orders can be refunded");
+        int updated = orderRepository.transitionToRefunded(orderId, OrderStatus.sourcesOf(OrderStatus.REFUNDED),
+                OrderStatus.REFUNDED, adminUsername, reason, LocalDateTime.now());
+        if (updated == 0) {
+            if (orderArchiveService.isArchived(orderId)) {
+                throw new OrderConflictException("Order " + orderId + " is archived and past the refund window");
+            }
+            throw transitionConflict(orderId, "Only PAID orders can be refunded");
         }
-
-        order.setStatus(OrderStatus.REFUNDED);
-        order.setRefundedBy(adminUsername);
-        order.setRefundReason(reason);
-        order.setRefundedAt(LocalDateTime.now());
-
-        return orderMapper.toDto(orderRepository.save(order));
+        Order order = reloadAfterTransition(orderId);
+        salesRollupService.recordRefund(order);
+        orderJournal.append(OrderJournalEntry.refunded(order));
+        orderMetrics.orderRefunded(order.getTotalAmountMinor());
+        return orderMapper.toDto(order);
     }
 
     @Transactional
     public OrderDto addItemToOrder(Long orderId, AddOrderItemRequest request) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        if (request.getQuantity() < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        applyItemDelta(orderId, request.getMenuItemId(), request.getQuantity(), request.getComments());
+        return getOrderDtoById(orderId);
+    }
 
-        MenuItem menuItem = menuItemRepository.findById(request.getMenuItemId())
-                .orElseThrow(() -> new IllegalArgumentException("Menu item not found"));
+    @Transactional
+    public OrderDto removeItemFromOrder(Long orderId, RemoveOrderItemRequest request) {
+        applyItemDelta(orderId, request.getMenuItemId(), -request.getQuantity(), null);
+        return getOrderDtoById(orderId);
+    }
 
-        // Check if item already exists, increase quantity if so
-        OrderItem existingItem = order.getItems().stream()
-                .filter(item -> item.getMenuItem().getId().equals(request.getMenuItemId()))
-                .findFirst()
-                .orElse(null);
+    /**
+     * Set-based quantity change for one (order, menu item) line: increments or
+     * creates the line, decrements or deletes it, and adjusts the order total,
+     * without loading the order graph. Removing an item that is not on the
+     * order is a no-op.
+     */
+    @Transactional
+    public OrderItemDeltaDto applyItemDelta(Long orderId, Long menuItemId, int delta, String comments) {
+        if (delta == 0) {
+            throw new IllegalArgumentException("Delta must not be zero");
+        }
+        MenuSnapshot.Entry menuEntry = delta > 0 ? requireAvailableMenuEntry(menuItemId) : null;
 
-        if (existingItem != null) {
-            existingItem.setQuantity(existingItem.getQuantity() + request.getQuantity());
-            orderItemRepository.save(existingItem);
+        // Locks the order row; nothing is written until the delta is known to change a line
+        OrderRepository.OrderHeader header = orderRepository.findHeaderForUpdate(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        if (!OrderStatus.openStatuses().contains(header.getStatus())) {
+            throw new OrderConflictException("Items can only be changed on open orders (current status: "
+                    + header.getStatus() + ")");
+        }
+        Optional<OrderItemRepository.LineState> line = orderItemRepository.findLineStateForUpdate(orderId, menuItemId);
+
+        int applied;
+        int quantity;
+        long unitPrice;
+        if (delta > 0) {
+            applied = delta;
+            if (line.isPresent()) {
+                // The line keeps the price it was opened with
+                unitPrice = line.get().getUnitPriceMinor();
+                quantity = line.get().getQuantity() + delta;
+                requireUpdated(orderItemRepository.adjustQuantity(line.get().getId(), delta), orderId);
+            } else {
+                unitPrice = menuEntry.getPriceMinor();
+                quantity = delta;
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrder(orderRepository.getReferenceById(orderId));
+                orderItem.setMenuItem(menuItemRepository.getReferenceById(menuItemId));
+                orderItem.setQuantity(delta);
+                orderItem.setComments(comments);
+                orderItem.setUnitPriceMinor(unitPrice);
+                orderItemRepository.save(orderItem);
+            }
+        } else if (line.isPresent()) {
+            unitPrice = line.get().getUnitPriceMinor();
+            quantity = line.get().getQuantity() + delta;
+            if (quantity > 0) {
+                applied = delta;
+                requireUpdated(orderItemRepository.adjustQuantity(line.get().getId(), delta), orderId);
+            } else {
+                applied = -line.get().getQuantity();
+                quantity = 0;
+                requireUpdated(orderItemRepository.deleteLine(line.get().getId()), orderId);
+            }
         } else {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setMenuItem(menuItem);
-            orderItem.setQuantity(request.getQuantity());
-            orderItem.setComments(request.getComments());
-            orderItemRepository.save(orderItem);
-            order.getItems().add(orderItem);
+            // Nothing to remove: the order, its version and its ETag stay as they are
+            return new OrderItemDeltaDto(orderId, menuItemId, 0, header.getTotalAmountMinor(), header.getStatus());
         }
 
-        // Recalculate total amount
-        double total = order.getItems().stream()
-                .mapToDouble(item -> item.getMenuItem().getPrice() * item.getQuantity())
-                .sum();
-        order.setTotalAmount(total);
+        long total = header.getTotalAmountMinor() + unitPrice * applied;
+        requireUpdated(orderRepository.adjustTotal(orderId, unitPrice * applied), orderId);
 
-        return orderMapper.toDto(orderRepository.save(order));
+        eventPublisher.publishEvent(new OrderChangedEvent(orderId,
+                applied > 0 ? OrderEventType.ITEM_ADDED : OrderEventType.ITEM_REMOVED,
+                header.getStatus(), header.getWaiterUsername(), menuItemId, Math.abs(applied), LocalDateTime.now()));
+        orderJournal.append(OrderJournalEntry.itemChanged(orderId, header.getStatus(), menuItemId, applied, unitPrice));
+        return new OrderItemDeltaDto(orderId, menuItemId, quantity, total, header.getStatus());
     }
 
-    @Transactional
-    public OrderDto removeItemFromOrder(Long orderId, RemoveOrderItemRequest request) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-
-        // Use iterator for safe removal while looping
-        var iterator = order.getItems().iterator();
-        while (iterator.hasNext()) {
-            OrderItem item = iterator.next();
-            if (item.getMenuItem().getId().equals(request.getMenuItemId())) {
-                if (item.getQuantity() > request.getQuantity()) {
-                    item.setQuantity(item.getQuantity() - request.getQuantity());
-                    orderItemRepository.save(item);
-                } else {
-                    iterator.remove();
-                    orderItemRepository.delete(item);
-                }
-                break; // Found and processed the item, exit loop
-            }
+    // Rows were read under lock, so a missed update means they changed anyway; roll the delta back
+    private static void requireUpdated(int updated, Long orderId) {
+        if (updated == 0) {
+            throw new OrderConflictException("Order " + orderId + " changed while its items were updated");
         }
+    }
 
-        // Recalculate total amount
-        double total = order.getItems().stream()
-                .mapToDouble(item -> item.getMenuItem().getPrice() * item.getQuantity())
-                .sum();
-        order.setTotalAmount(total);
+    public OrderDto toDto(Order order) {
+        return orderMapper.toDto(order);
+    }
 
-        return orderMapper.toDto(orderRepository.save(order));
+    // Both notes are kept when the same menu item is listed twice
+    public static String mergeComments(String first, String second) {
+        if (second == null || second.isBlank() || second.equals(first)) {
+            return first;
+        }
+        return first == null || first.isBlank() ? second : first + "; " + second;
     }
 
-    public OrderDto toDto(Order order) {
+    private MenuSnapshot.Entry requireAvailableMenuEntry(Long menuItemId) {
+        MenuSnapshot.Entry menuEntry = menuItemService.findMenuEntry(menuItemId);
+        if (menuEntry == null) {
+            throw new IllegalArgumentException("Menu item not found");
+        }
+        if (!menuEntry.isAvailable()) {
+            throw new IllegalStateException("Menu item is not available: " + menuEntry.getName());
+        }
+        return menuEntry;
+    }
+
+    private OrderDto afterTransition(Long orderId) {
+        Order order = reloadAfterTransition(orderId);
+        orderJournal.append(OrderJournalEntry.statusChanged(orderId, order.getStatus()));
         return orderMapper.toDto(order);
     }
 
+    // Reads the order back once after a conditional update and announces the change.
+    // Two projections (header, lines) instead of the entity graph: the result is a detached
+    // Order whose menu items are unloaded references, named from the catalog by the mapper.
+    private Order reloadAfterTransition(Long orderId) {
+        OrderRepository.OrderView view = orderRepository.findViewById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        Order order = Order.builder()
+                .id(view.getId())
+                .createdAt(view.getCreatedAt())
+                .status(view.getStatus())
+                .waiterUsername(view.getWaiterUsername())
+                .paymentMethod(view.getPaymentMethod())
+                .paidAt(view.getPaidAt())
+                .totalAmountMinor(view.getTotalAmountMinor())
+                .refundedBy(view.getRefundedBy())
+                .refundReason(view.getRefundReason())
+                .refundedAt(view.getRefundedAt())
+                .build();
+        order.setItems(orderItemRepository.findLineViews(orderId).stream()
+                .map(line -> OrderItem.builder()
+                        .id(line.getId())
+                        .order(order)
+                        .menuItem(menuItemRepository.getReferenceById(line.getMenuItemId()))
+                        .quantity(line.getQuantity())
+                        .unitPriceMinor(line.getUnitPriceMinor())
+                        .comments(line.getComments())
+                        .build())
+                .collect(Collectors.toList()));
+        publish(order, OrderEventType.STATUS_CHANGED, null, 0);
+        return order;
+    }
 
+    // No row matched: either the order does not exist or it is in the wrong state
+    private OrderConflictException transitionConflict(Long orderId, String message) {
+        OrderStatus current = orderRepository.findStatusById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        return new OrderConflictException(message + " (current status: " + current + ")");
+    }
 
+    // Delivered to listeners (stream, ...) only once the transaction commits
+    private void publish(Order order, OrderEventType type, Long menuItemId, int quantity) {
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), type, order.getStatus(),
+                order.getWaiterUsername(), menuItemId, quantity, LocalDateTime.now()));
+    }
 }
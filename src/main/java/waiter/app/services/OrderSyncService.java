@@ -0,0 +1,234 @@
+package waiter.app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import waiter.app.Enums.SyncOperationType;
+import waiter.app.Enums.SyncOutcome;
+import waiter.app.dto.OrderDto;
+import waiter.app.dto.SyncBatchRequest;
+import waiter.app.dto.SyncBatchResultDto;
+import waiter.app.dto.SyncOperationResultDto;
+import waiter.app.entities.SyncAppliedOp;
+import waiter.app.exceptions.OrderConflictException;
+import waiter.app.repositories.SyncAppliedOpRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Replays a PDA's offline queue through {@link OrderService} in one transaction.
+ * The batch is all-or-nothing: the first failing operation rolls everything
+ * back, so the device can fix or drop it and resend the same queue.
+ * Operations already applied by an earlier sync (same user, device and
+ * clientSeq) are reported as DUPLICATE and skipped.
+ */
+@Service
+public class OrderSyncService {
+
+    private final OrderService orderService;
+    private final SyncAppliedOpRepository syncAppliedOpRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOperations;
+    private final int retentionDays;
+
+    public OrderSyncService(OrderService orderService,
+                            SyncAppliedOpRepository syncAppliedOpRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${pda.orders.sync.max-operations:500}") int maxOperations,
+                            @Value("${pda.orders.sync.retention-days:30}") int retentionDays) {
+        this.orderService = orderService;
+        this.syncAppliedOpRepository = syncAppliedOpRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxOperations = maxOperations;
+        this.retentionDays = retentionDays;
+    }
+
+    public SyncBatchResultDto sync(SyncBatchRequest request, String username) {
+        List<SyncBatchRequest.Operation> operations = request.getOperations();
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("At most " + maxOperations + " operations per sync");
+        }
+        for (int i = 1; i < operations.size(); i++) {
+            if (operations.get(i).getClientSeq() <= operations.get(i - 1).getClientSeq()) {
+                throw new IllegalArgumentException("Client sequence numbers must be strictly increasing");
+            }
+        }
+
+        Batch batch = new Batch(request.getDeviceId(), username);
+        boolean committed;
+        try {
+            committed = Boolean.TRUE.equals(transactionTemplate.execute(status -> apply(batch, operations, status)));
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, SyncAppliedOp.DEVICE_SEQ_CONSTRAINT)) {
+                throw e;
+            }
+            // Another sync from the same device recorded one of these sequence numbers first
+            throw new OrderConflictException("Operations from this device are already being synced, retry the batch");
+        }
+
+        if (!committed) {
+            batch.touchedOrderIds.removeAll(batch.createdOrderIds);
+            for (int i = 0; i < batch.results.size(); i++) {
+                SyncOperationResultDto result = batch.results.get(i);
+                if (result.getOutcome() == SyncOutcome.APPLIED) {
+                    boolean created = operations.get(i).getType() == SyncOperationType.CREATE_ORDER;
+                    batch.results.set(i, new SyncOperationResultDto(result.getClientSeq(), SyncOutcome.NOT_APPLIED,
+                            created ? null : result.getOrderId(), "Rolled back"));
+                }
+            }
+        }
+
+        List<OrderDto> orders = orderService.getOrderDtosByIds(batch.touchedOrderIds);
+        return new SyncBatchResultDto(committed, batch.results, orders);
+    }
+
+    // The driver names the violated key in its message (MySQL and H2 alike)
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase().contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${pda.orders.sync.purge-interval-ms:3600000}")
+    public void purgeAppliedOps() {
+        syncAppliedOpRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    private boolean apply(Batch batch, List<SyncBatchRequest.Operation> operations, TransactionStatus status) {
+        Map<Long, SyncAppliedOp> alreadyApplied = syncAppliedOpRepository
+                .findByUsernameAndDeviceIdAndClientSeqIn(batch.username, batch.deviceId,
+                        operations.stream().map(SyncBatchRequest.Operation::getClientSeq).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(SyncAppliedOp::getClientSeq, Function.identity()));
+
+        for (int i = 0; i < operations.size(); i++) {
+            SyncBatchRequest.Operation operation = operations.get(i);
+
+            SyncAppliedOp previous = alreadyApplied.get(operation.getClientSeq());
+            if (previous != null) {
+                if (previous.getClientOrderRef() != null && previous.getOrderId() != null) {
+                    batch.orderRefs.put(previous.getClientOrderRef(), previous.getOrderId());
+                }
+                batch.touch(previous.getOrderId());
+                batch.results.add(new SyncOperationResultDto(operation.getClientSeq(), SyncOutcome.DUPLICATE,
+                        previous.getOrderId(), null));
+                continue;
+            }
+
+            Long orderId;
+            try {
+                orderId = applyOperation(batch, operation);
+            } catch (IllegalArgumentException | IllegalStateException | OrderConflictException e) {
+                status.setRollbackOnly();
+                batch.results.add(new SyncOperationResultDto(operation.getClientSeq(), SyncOutcome.FAILED,
+                        operation.getOrderId(), e.getMessage()));
+                for (SyncBatchRequest.Operation skipped : operations.subList(i + 1, operations.size())) {
+                    batch.results.add(new SyncOperationResultDto(skipped.getClientSeq(), SyncOutcome.NOT_APPLIED,
+                            skipped.getOrderId(), "Not applied, operation " + operation.getClientSeq() + " failed"));
+                }
+                return false;
+            }
+
+            syncAppliedOpRepository.save(new SyncAppliedOp(null, batch.username, batch.deviceId,
+                    operation.getClientSeq(), operation.getType(), operation.getClientOrderRef(), orderId,
+                    LocalDateTime.now()));
+            batch.touch(orderId);
+            batch.results.add(new SyncOperationResultDto(operation.getClientSeq(), SyncOutcome.APPLIED, orderId, null));
+        }
+        return true;
+    }
+
+    private Long applyOperation(Batch batch, SyncBatchRequest.Operation operation) {
+        switch (operation.getType()) {
+            case CREATE_ORDER: {
+                if (operation.getItems() == null || operation.getItems().isEmpty()) {
+                    throw new IllegalArgumentException("Order must contain at least one item");
+                }
+                OrderDto orderDto = new OrderDto();
+                orderDto.setItems(operation.getItems());
+                Long orderId = orderService.createOrder(orderDto, batch.username).getId();
+                if (operation.getClientOrderRef() != null) {
+                    batch.orderRefs.put(operation.getClientOrderRef(), orderId);
+                }
+                batch.createdOrderIds.add(orderId);
+                return orderId;
+            }
+            case ADD_ITEM:
+            case REMOVE_ITEM: {
+                if (operation.getMenuItemId() == null || operation.getQuantity() == null) {
+                    throw new IllegalArgumentException("Menu item and quantity are required");
+                }
+                Long orderId = resolveOrderId(batch, operation);
+                int delta = operation.getType() == SyncOperationType.ADD_ITEM
+                        ? operation.getQuantity()
+                        : -operation.getQuantity();
+                orderService.applyItemDelta(orderId, operation.getMenuItemId(), delta, operation.getComments());
+                return orderId;
+            }
+            case CHANGE_STATUS: {
+                if (operation.getStatus() == null) {
+                    throw new IllegalArgumentException("Target status is required");
+                }
+                Long orderId = resolveOrderId(batch, operation);
+                orderService.updateStatus(orderId, operation.getStatus());
+                return orderId;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation.getType());
+        }
+    }
+
+    private Long resolveOrderId(Batch batch, SyncBatchRequest.Operation operation) {
+        if (operation.getOrderId() != null) {
+            return operation.getOrderId();
+        }
+        String ref = operation.getClientOrderRef();
+        if (ref == null) {
+            throw new IllegalArgumentException("orderId or clientOrderRef is required");
+        }
+        Long orderId = batch.orderRefs.get(ref);
+        if (orderId == null) {
+            // Created by an earlier sync from this user and device
+            orderId = syncAppliedOpRepository
+                    .findOrderIdByClientOrderRef(batch.username, batch.deviceId, ref, SyncOperationType.CREATE_ORDER)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown clientOrderRef: " + ref));
+            batch.orderRefs.put(ref, orderId);
+        }
+        return orderId;
+    }
+
+    private static final class Batch {
+        private final String deviceId;
+        private final String username;
+        private final List<SyncOperationResultDto> results = new ArrayList<>();
+        private final Map<String, Long> orderRefs = new HashMap<>();
+        private final Set<Long> touchedOrderIds = new LinkedHashSet<>();
+        private final Set<Long> createdOrderIds = new LinkedHashSet<>();
+
+        private Batch(String deviceId, String username) {
+            this.deviceId = deviceId;
+            this.username = username;
+        }
+
+        private void touch(Long orderId) {
+            if (orderId != null) {
+                touchedOrderIds.add(orderId);
+            }
+        }
+    }
+}
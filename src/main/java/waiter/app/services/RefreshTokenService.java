@@ -0,0 +1,191 @@
+package waiter.app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import waiter.app.Enums.RefreshTokenRevocation;
+import waiter.app.dto.AuthResponse;
+import waiter.app.entities.RefreshToken;
+import waiter.app.entities.User;
+import waiter.app.repositories.RefreshTokenRepository;
+import waiter.app.repositories.UserRepository;
+import waiter.app.utils.JwtUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens, so a PDA renews its short-lived access
+ * token with one hash and a few indexed queries instead of a BCrypt login.
+ *
+ * <p>Tokens are 256 random bits handed to the device once; only their SHA-256
+ * is stored, which is enough because they cannot be guessed (no salt or slow
+ * hash needed, unlike passwords). Every exchange revokes the presented token
+ * and issues its successor in the same family. A revoked token that comes
+ * back means two parties hold the family, so all of it is revoked and the
+ * device has to log in again. The one exception is a retry: a token rotated
+ * a few seconds ago whose successor has not been used yet (the response was
+ * lost on the way to the PDA) gets a fresh successor in place of the unused
+ * one. One active family per user and device: a new login on the device
+ * replaces the previous one.
+ */
+@Service
+public class RefreshTokenService {
+
+    public static final String UNKNOWN_DEVICE = "unknown";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository repository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final Duration ttl;
+    private final Duration reuseGrace;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository repository,
+                               UserRepository userRepository,
+                               JwtUtil jwtUtil,
+                               @Value("${pda.auth.refresh-token-ttl-days:14}") long ttlDays,
+                               @Value("${pda.auth.refresh-token-reuse-grace-seconds:30}") long reuseGraceSeconds) {
+        this.repository = repository;
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.reuseGrace = Duration.ofSeconds(reuseGraceSeconds);
+    }
+
+    /**
+     * Access and refresh token for a user who has just proven their password.
+     */
+    @Transactional
+    public AuthResponse login(String username, String role, String deviceId) {
+        String device = normalizeDevice(deviceId);
+        repository.revokeDevice(username, device, RefreshTokenRevocation.REPLACED, LocalDateTime.now());
+        Issued refreshToken = issue(username, device, UUID.randomUUID().toString());
+        return response(username, role, refreshToken.rawToken());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and the next refresh token.
+     *
+     * @throws BadCredentialsException if the token is unknown, expired, revoked
+     *                                 or its user no longer exists
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponse refresh(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = repository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        if (token.getRevokedAt() != null) {
+            // A retry of an exchange whose response was lost: the unused successor is replaced
+            if (isRecentlyRotated(token, now)
+                    && repository.revoke(token.getReplacedById(), RefreshTokenRevocation.REPLACED, now) == 1) {
+                return rotate(token, now);
+            }
+            throw reuseDetected(token, now);
+        }
+        if (repository.revoke(token.getId(), RefreshTokenRevocation.ROTATED, now) == 0) {
+            throw reuseDetected(token, now);
+        }
+        return rotate(token, now);
+    }
+
+    private boolean isRecentlyRotated(RefreshToken token, LocalDateTime now) {
+        return token.getRevokedReason() == RefreshTokenRevocation.ROTATED
+                && token.getReplacedById() != null
+                && !token.getRevokedAt().isBefore(now.minus(reuseGrace));
+    }
+
+    private AuthResponse rotate(RefreshToken token, LocalDateTime now) {
+        User user = userRepository.findByEmail(token.getUsername()).orElse(null);
+        if (user == null) {
+            repository.revokeFamily(token.getFamilyId(), RefreshTokenRevocation.REVOKED, now);
+            throw new BadCredentialsException("User no longer exists");
+        }
+        Issued next = issue(user.getEmail(), token.getDeviceId(), token.getFamilyId());
+        repository.linkSuccessor(token.getId(), next.id());
+        return response(user.getEmail(), user.getRole().name(), next.rawToken());
+    }
+
+    private BadCredentialsException reuseDetected(RefreshToken token, LocalDateTime now) {
+        if (token.getRevokedReason() != RefreshTokenRevocation.REUSE_DETECTED) {
+            repository.revokeFamily(token.getFamilyId(), RefreshTokenRevocation.REUSE_DETECTED, now);
+        }
+        return new BadCredentialsException("Refresh token already used or revoked");
+    }
+
+    /**
+     * Ends the session of the device the token belongs to. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void logout(String rawToken) {
+        repository.findByTokenHash(hash(rawToken)).ifPresent(token ->
+                repository.revokeDevice(token.getUsername(), token.getDeviceId(),
+                        RefreshTokenRevocation.LOGOUT, LocalDateTime.now()));
+    }
+
+    public int revokeUser(String username) {
+        return repository.revokeUser(username, RefreshTokenRevocation.REVOKED, LocalDateTime.now());
+    }
+
+    public int revokeDevice(String username, String deviceId) {
+        return repository.revokeDevice(username, normalizeDevice(deviceId), RefreshTokenRevocation.REVOKED,
+                LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${pda.auth.refresh-token-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        repository.deleteExpiredBefore(LocalDateTime.now());
+    }
+
+    private record Issued(Long id, String rawToken) {
+    }
+
+    private Issued issue(String username, String deviceId, String familyId) {
+        byte[] secret = new byte[TOKEN_BYTES];
+        random.nextBytes(secret);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken saved = repository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .username(username)
+                .deviceId(deviceId)
+                .familyId(familyId)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build());
+        return new Issued(saved.getId(), rawToken);
+    }
+
+    private AuthResponse response(String username, String role, String refreshToken) {
+        return new AuthResponse(jwtUtil.generateToken(username, role), role, refreshToken,
+                jwtUtil.accessTokenTtlSeconds());
+    }
+
+    private static String normalizeDevice(String deviceId) {
+        return deviceId == null || deviceId.isBlank() ? UNKNOWN_DEVICE : deviceId.trim();
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package waiter.app.services;
+
+import waiter.app.Enums.RollupBucket;
+import waiter.app.Enums.RollupDimension;
+import waiter.app.entities.Order;
+import waiter.app.entities.OrderItem;
+import waiter.app.entities.SalesRollup;
+import waiter.app.entities.SalesRollupId;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Accumulates rollup counter changes for one or more payments/refunds.
+ * Rows come out in primary-key order, so concurrent payments lock shared
+ * rows (the TOTAL buckets) in the same order and cannot deadlock.
+ */
+final class SalesRollupDeltas {
+
+    private static final Comparator<SalesRollupId> KEY_ORDER = Comparator
+            .comparing(SalesRollupId::getBucketStart)
+            .thenComparing(SalesRollupId::getBucketType)
+            .thenComparing(SalesRollupId::getDimension)
+            .thenComparing(SalesRollupId::getDimensionKey);
+
+    private final Map<SalesRollupId, SalesRollup> rows = new TreeMap<>(KEY_ORDER);
+
+    void addPayment(Order order, LocalDateTime paidAt) {
+        long quantity = 0;
+        for (OrderItem item : order.getItems()) {
+            quantity += item.getQuantity();
+        }
+        for (RollupBucket bucket : RollupBucket.values()) {
+            LocalDateTime start = bucket.startOf(paidAt);
+            for (Map.Entry<RollupDimension, String> key : orderKeys(order).entrySet()) {
+                SalesRollup row = row(bucket, start, key.getKey(), key.getValue());
+                row.setOrderCount(row.getOrderCount() + 1);
+                row.setItemQuantity(row.getItemQuantity() + quantity);
+                row.setRevenueMinor(row.getRevenueMinor() + order.getTotalAmountMinor());
+            }
+            for (OrderItem item : order.getItems()) {
+                SalesRollup row = row(bucket, start, RollupDimension.MENU_ITEM, menuItemKey(item));
+                row.setOrderCount(row.getOrderCount() + 1);
+                row.setItemQuantity(row.getItemQuantity() + item.getQuantity());
+                row.setRevenueMinor(row.getRevenueMinor() + item.getQuantity() * item.getUnitPriceMinor());
+            }
+        }
+    }
+
+    void addRefund(Order order, LocalDateTime refundedAt) {
+        for (RollupBucket bucket : RollupBucket.values()) {
+            LocalDateTime start = bucket.startOf(refundedAt);
+            for (Map.Entry<RollupDimension, String> key : orderKeys(order).entrySet()) {
+                SalesRollup row = row(bucket, start, key.getKey(), key.getValue());
+                row.setRefundCount(row.getRefundCount() + 1);
+                row.setRefundedMinor(row.getRefundedMinor() + order.getTotalAmountMinor());
+            }
+            for (OrderItem item : order.getItems()) {
+                SalesRollup row = row(bucket, start, RollupDimension.MENU_ITEM, menuItemKey(item));
+                row.setRefundCount(row.getRefundCount() + 1);
+                row.setRefundedMinor(row.getRefundedMinor() + item.getQuantity() * item.getUnitPriceMinor());
+            }
+        }
+    }
+
+    Collection<SalesRollup> rows() {
+        return rows.values();
+    }
+
+    private SalesRollup row(RollupBucket bucket, LocalDateTime start, RollupDimension dimension, String key) {
+        SalesRollupId id = new SalesRollupId(bucket, start, dimension, key);
+        return rows.computeIfAbsent(id, k -> new SalesRollup(k, 0, 0, 0, 0, 0));
+    }
+
+    private static Map<RollupDimension, String> orderKeys(Order order) {
+        Map<RollupDimension, String> keys = new TreeMap<>();
+        keys.put(RollupDimension.TOTAL, "");
+        keys.put(RollupDimension.WAITER, order.getWaiterUsername() == null ? "" : order.getWaiterUsername());
+        keys.put(RollupDimension.PAYMENT_METHOD, order.getPaymentMethod() == null ? "" : order.getPaymentMethod().name());
+        return keys;
+    }
+
+    // The proxy id is available without initializing the menu item
+    private static String menuItemKey(OrderItem item) {
+        return String.valueOf(item.getMenuItem().getId());
+    }
+}
@@ -0,0 +1,137 @@
+package waiter.app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.RollupBucket;
+import waiter.app.Enums.RollupDimension;
+import waiter.app.dto.SalesRollupDto;
+import waiter.app.entities.Order;
+import waiter.app.entities.SalesRollup;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.repositories.SalesRollupRepository;
+import waiter.app.utils.DateRanges;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps sales_rollups in step with payments and refunds. Live updates run
+ * inside the pay/refund transaction; {@link #rebuild} recomputes whole days
+ * from the orders table (backfills, or repairing drift).
+ */
+@Service
+public class SalesRollupService {
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final OrderRepository orderRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRangeDays;
+
+    public SalesRollupService(SalesRollupRepository salesRollupRepository,
+                              OrderRepository orderRepository,
+                              OrderArchiveService orderArchiveService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${pda.reports.max-range-days:366}") int maxRangeDays) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.orderRepository = orderRepository;
+        this.orderArchiveService = orderArchiveService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPayment(Order order) {
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        deltas.addPayment(order, order.getPaidAt());
+        salesRollupRepository.increment(deltas.rows());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRefund(Order order) {
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        deltas.addRefund(order, order.getRefundedAt());
+        salesRollupRepository.increment(deltas.rows());
+    }
+
+    /**
+     * @param from first day, inclusive
+     * @param to   last day, inclusive
+     */
+    @Transactional(readOnly = true)
+    public List<SalesRollupDto> getRollups(RollupBucket bucket, RollupDimension dimension, LocalDate from, LocalDate to) {
+        DateRanges.check(from, to, maxRangeDays);
+        return salesRollupRepository.findRange(bucket, dimension, from.atStartOfDay(), to.plusDays(1).atStartOfDay())
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recomputes the rollups of every day in [from, to], one transaction per day.
+     * The day's rows are deleted before the orders are read, so a payment that
+     * commits meanwhile is either counted by the rebuild or added on top of it.
+     *
+     * @return number of days rebuilt
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        DateRanges.check(from, to, maxRangeDays);
+        LocalDateTime archiveCutoff = orderArchiveService.archiveCutoff();
+        if (archiveCutoff != null && from.atStartOfDay().isBefore(archiveCutoff)) {
+            // Their orders may have left the orders table; the stored rollups are final
+            throw new IllegalArgumentException("Days before " + archiveCutoff.toLocalDate().plusDays(1)
+                    + " are archived and cannot be rebuilt");
+        }
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDateTime start = day.atStartOfDay();
+            LocalDateTime end = start.plusDays(1);
+            transactionTemplate.executeWithoutResult(status -> rebuildRange(start, end));
+            days++;
+        }
+        return days;
+    }
+
+    // Nightly reconciliation of the previous day
+    @Scheduled(cron = "${pda.reports.rebuild-cron:0 30 4 * * *}")
+    public void rebuildYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        rebuild(yesterday, yesterday);
+    }
+
+    private void rebuildRange(LocalDateTime start, LocalDateTime end) {
+        salesRollupRepository.deleteRange(start, end);
+
+        SalesRollupDeltas deltas = new SalesRollupDeltas();
+        for (Order order : orderRepository.findPaidBetween(EnumSet.of(OrderStatus.PAID, OrderStatus.REFUNDED), start, end)) {
+            deltas.addPayment(order, order.getPaidAt() != null ? order.getPaidAt() : order.getCreatedAt());
+        }
+        for (Order order : orderRepository.findRefundedBetween(OrderStatus.REFUNDED, start, end)) {
+            deltas.addRefund(order, order.getRefundedAt());
+        }
+        salesRollupRepository.increment(deltas.rows());
+    }
+
+    private SalesRollupDto toDto(SalesRollup rollup) {
+        return new SalesRollupDto(
+                rollup.getId().getBucketStart(),
+                rollup.getId().getDimension(),
+                rollup.getId().getDimensionKey(),
+                rollup.getOrderCount(),
+                rollup.getItemQuantity(),
+                rollup.getRevenueMinor(),
+                rollup.getRefundCount(),
+                rollup.getRefundedMinor(),
+                rollup.getRevenueMinor() - rollup.getRefundedMinor()
+        );
+    }
+}
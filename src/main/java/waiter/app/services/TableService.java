@@ -23,6 +23,12 @@ public class TableService {
                 .collect(Collectors.toList());
     }
 
+    // Cheap aggregate version of the whole table list, used as its ETag
+    public String getTablesETag() {
+        TableRepository.CollectionVersion version = tableRepository.findCollectionVersion();
+        return "\"t" + version.getCount() + "-" + version.getVersionSum() + "-" + version.getMaxId() + "\"";
+    }
+
     public TableDto updateStatus(Long tableId, TableStatus status, String waiter) {
         Tables table = tableRepository.findById(tableId)
                 .orElseThrow(() -> new RuntimeException("Table not found"));
@@ -0,0 +1,30 @@
+package waiter.app.utils;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Checks for the inclusive [from, to] day ranges taken by reports and exports.
+ */
+public final class DateRanges {
+
+    private DateRanges() {
+    }
+
+    /**
+     * @param maxDays the most days the range may span, both ends included
+     * @throws IllegalArgumentException if a bound is missing, the range is
+     *                                  reversed or longer than maxDays
+     */
+    public static void check(LocalDate from, LocalDate to, int maxDays) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new IllegalArgumentException("Range cannot exceed " + maxDays + " days");
+        }
+    }
+}
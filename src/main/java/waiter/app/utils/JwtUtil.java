@@ -1,21 +1,71 @@
 package waiter.app.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
     private final String jwtSecret = "VerySecretKeyForJwtSigningThatIsAtLeast32BytesLong!";
-    private final long jwtExpirationMs = 24 * 60 * 60 * 1000; // 24 hours
+    // Short: access tokens cannot be revoked, devices renew them with a refresh token
+    private final long jwtExpirationMs;
+
+    // Key and parser are immutable and thread-safe: build them once
+    private final Key signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+
+    // Already-verified tokens -> claims, each entry dropped when its token expires
+    private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                    long remainingMs = claims.getExpiration() == null
+                            ? jwtExpirationMs
+                            : claims.getExpiration().getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+    public JwtUtil() {
+        this(15);
+    }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Autowired
+    public JwtUtil(@Value("${pda.auth.access-token-ttl-minutes:15}") long accessTokenTtlMinutes) {
+        this.jwtExpirationMs = TimeUnit.MINUTES.toMillis(accessTokenTtlMinutes);
+    }
+
+    public long accessTokenTtlSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(jwtExpirationMs);
     }
 
     // ✅ Δημιουργία token με ρόλο
@@ -28,7 +78,7 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -52,11 +102,25 @@ public class JwtUtil {
         }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token once and returns all of its claims. Repeat calls with
+     * the same token are served from the verified-token cache until it expires.
+     */
+    public Claims extractAllClaims(String token) {
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+
+    public CacheStats verifiedTokenCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    public long verifiedTokenCacheSize() {
+        return verifiedTokens.estimatedSize();
     }
 }
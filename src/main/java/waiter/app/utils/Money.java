@@ -0,0 +1,36 @@
+package waiter.app.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money is stored as a long count of minor units (cents) to avoid floating
+ * point drift in totals. The menu still exposes prices as decimals.
+ */
+public final class Money {
+
+    private static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long toMinor(Double amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return BigDecimal.valueOf(amount)
+                .setScale(SCALE, RoundingMode.HALF_UP)
+                .movePointRight(SCALE)
+                .longValueExact();
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP)
+                .movePointRight(SCALE)
+                .longValueExact();
+    }
+
+    public static BigDecimal toMajor(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+}
@@ -0,0 +1,157 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderItemDto;
+import waiter.app.entities.MenuItem;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.OrderService;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BulkStatusUpdateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @SpyBean
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long coffeeId;
+
+    @BeforeEach
+    public void seed() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        coffeeId = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build()).getId();
+        menuItemService.refreshCatalog();
+    }
+
+    private Long order(OrderStatus status) {
+        OrderDto order = new OrderDto();
+        order.setItems(List.of(new OrderItemDto(null, coffeeId, "Freddo", 1, null)));
+        Long orderId = orderService.createOrder(order, "waiter@test.com").getId();
+        if (status == OrderStatus.CANCELLED) {
+            orderService.cancelOrder(orderId, "waiter@test.com");
+        } else if (status != OrderStatus.NEW) {
+            orderService.updateStatus(orderId, status);
+        }
+        return orderId;
+    }
+
+    private static String transitions(Object... idAndStatus) {
+        StringBuilder json = new StringBuilder("{\"transitions\":[");
+        for (int i = 0; i < idAndStatus.length; i += 2) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"orderId\":").append(idAndStatus[i])
+                    .append(",\"status\":\"").append(idAndStatus[i + 1]).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void mixedBatch_reportsEachOutcomeInRequestOrder() throws Exception {
+        Long fresh = order(OrderStatus.NEW);
+        Long cancelled = order(OrderStatus.CANCELLED);
+        Long ready = order(OrderStatus.READY);
+        Long cooking = order(OrderStatus.IN_PROGRESS);
+
+        mockMvc.perform(put("/api/orders/status").contentType(MediaType.APPLICATION_JSON)
+                        .content(transitions(fresh, "IN_PROGRESS", cancelled, "READY", 999999, "READY",
+                                ready, "PAID", cooking, "READY")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$[1].outcome").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].status").value("CANCELLED"))
+                .andExpect(jsonPath("$[2].outcome").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[3].outcome").value("REJECTED"))
+                .andExpect(jsonPath("$[4].orderId").value(cooking))
+                .andExpect(jsonPath("$[4].outcome").value("UPDATED"));
+
+        assertEquals(OrderStatus.IN_PROGRESS, orderRepository.findStatusById(fresh).orElseThrow());
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findStatusById(cancelled).orElseThrow());
+        assertEquals(OrderStatus.READY, orderRepository.findStatusById(ready).orElseThrow());
+        assertEquals(OrderStatus.READY, orderRepository.findStatusById(cooking).orElseThrow());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void oversizedBatch_isRejected() throws Exception {
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(Long::toString).collect(Collectors.joining(","));
+
+        mockMvc.perform(put("/api/orders/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderIds\":[" + ids + "],\"status\":\"READY\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("At most 100 orders per batch"));
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void orderChangedBetweenReadAndUpdate_isConflict() throws Exception {
+        Long first = order(OrderStatus.NEW);
+        Long second = order(OrderStatus.NEW);
+
+        // Another request cancels the second order right after the batch read the statuses
+        AtomicBoolean interfered = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Object views = invocation.callRealMethod();
+            if (interfered.compareAndSet(false, true)) {
+                jdbc.update("update orders set status = 'CANCELLED' where id = ?", second);
+            }
+            return views;
+        }).when(orderRepository).findStatusViews(any());
+
+        mockMvc.perform(put("/api/orders/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderIds\":[" + first + "," + second + "],\"status\":\"READY\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[1].outcome").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].status").value("CANCELLED"))
+                .andExpect(jsonPath("$[1].message").value("Order was modified concurrently"));
+
+        assertEquals(OrderStatus.READY, orderRepository.findStatusById(first).orElseThrow());
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findStatusById(second).orElseThrow());
+    }
+}
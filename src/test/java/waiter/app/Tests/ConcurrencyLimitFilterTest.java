@@ -0,0 +1,85 @@
+package waiter.app.Tests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import waiter.app.services.ConcurrencyLimitFilter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrencyLimitFilterTest {
+
+    private static ConcurrencyLimitFilter filter(String mode, int poolSize, SimpleMeterRegistry registry) {
+        return new ConcurrencyLimitFilter(mode, false, 0, 2, 100, poolSize, registry);
+    }
+
+    @Test
+    public void virtualMode_limitsToPoolMultiple_andRejectsAfterQueueTimeout() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = filter("virtual", 1, registry);
+        assertTrue(filter.isEnabled());
+        assertEquals(2, filter.permits());
+
+        CountDownLatch inside = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread[] holders = new Thread[2];
+        for (int i = 0; i < holders.length; i++) {
+            holders[i] = Thread.ofVirtual().start(() -> {
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/orders"), new MockHttpServletResponse(),
+                            (request, response) -> {
+                                inside.countDown();
+                                try {
+                                    release.await();
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            });
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/orders"), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, registry.get("pda.requests.limiter.rejected").counter().count());
+        assertEquals(2.0, registry.get("pda.requests.limiter.active").gauge().value());
+
+        // Health probes bypass the limiter
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, new MockFilterChain());
+        assertEquals(200, health.getStatus());
+
+        release.countDown();
+        for (Thread holder : holders) {
+            holder.join();
+        }
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/orders"), admitted, new MockFilterChain());
+        assertEquals(200, admitted.getStatus());
+        assertEquals(0.0, registry.get("pda.requests.limiter.active").gauge().value());
+    }
+
+    @Test
+    public void platformMode_isOffUnlessEnabled() throws Exception {
+        ConcurrencyLimitFilter filter = filter("platform", 10, new SimpleMeterRegistry());
+        assertFalse(filter.isEnabled());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/orders"), response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+
+        assertTrue(new ConcurrencyLimitFilter("platform", true, 0, 2, 100, 10, new SimpleMeterRegistry()).isEnabled());
+    }
+}
@@ -0,0 +1,122 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.dataset.DatasetGenerator;
+import waiter.app.dataset.DatasetSpec;
+import waiter.app.entities.MenuItem;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class DatasetGeneratorTest {
+
+    private static final DatasetSpec SPEC = DatasetSpec.builder()
+            .menuItems(30).tables(10).users(40)
+            .orders(3_000)
+            .days(28).lastDay(LocalDate.of(2024, 3, 31))
+            .threads(3).batchSize(250)
+            .build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    private long lastTableId;
+
+    @BeforeEach
+    public void clean() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        lastTableId = jdbc.queryForObject("select coalesce(max(id), 0) from tables", Long.class);
+    }
+
+    @AfterEach
+    public void removeGenerated() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        jdbc.update("delete from users where email like '%@dataset.local'");
+        jdbc.update("delete from tables where id > ?", lastTableId);
+        menuItemService.refreshCatalog();
+    }
+
+    @Test
+    public void generate_insertsConsistentSkewedData() throws Exception {
+        DatasetGenerator.Result result = new DatasetGenerator(dataSource).generate(SPEC);
+
+        assertEquals(3_000, result.orders());
+        assertEquals(3_000L, jdbc.queryForObject("select count(*) from orders", Long.class));
+        assertEquals(result.orderItems(), jdbc.queryForObject("select count(*) from order_items", Long.class));
+        assertEquals(30L, jdbc.queryForObject("select count(*) from menu_items", Long.class));
+        assertEquals(40L, jdbc.queryForObject("select count(*) from users where email like '%@dataset.local'", Long.class));
+
+        double itemsPerOrder = (double) result.orderItems() / result.orders();
+        assertTrue(itemsPerOrder > 5 && itemsPerOrder < 7, "items per order " + itemsPerOrder);
+
+        // Totals match their lines and every order belongs to the requested window
+        assertEquals(0L, jdbc.queryForObject("select count(*) from orders o where o.total_amount_minor <> " +
+                "(select sum(i.quantity * i.unit_price_minor) from order_items i where i.order_id = o.id)", Long.class));
+        assertEquals(0L, jdbc.queryForObject("select count(*) from orders " +
+                "where created_at < '2024-03-04 00:00:00' or created_at >= '2024-04-01 00:00:00'", Long.class));
+
+        // Dinner outsells the small hours, the favourite dish outsells the least popular one
+        long dinner = jdbc.queryForObject("select count(*) from orders where hour(created_at) between 20 and 22", Long.class);
+        long night = jdbc.queryForObject("select count(*) from orders where hour(created_at) between 2 and 7", Long.class);
+        assertTrue(dinner > 600 && night == 0, "dinner " + dinner + ", night " + night);
+        long top = jdbc.queryForObject("select max(c) from (select count(*) c from order_items group by menu_item_id) t", Long.class);
+        long bottom = jdbc.queryForObject("select min(c) from (select count(*) c from order_items group by menu_item_id) t", Long.class);
+        assertTrue(top > 5 * bottom, "top " + top + ", bottom " + bottom);
+    }
+
+    @Test
+    @WithMockUser(username = "waiter1@dataset.local", roles = {"WAITER"})
+    public void generate_leavesIdGeneratorsAheadOfGeneratedIds() throws Exception {
+        new DatasetGenerator(dataSource).generate(SPEC.toBuilder().orders(500).build());
+        long maxOrderId = jdbc.queryForObject("select max(id) from orders", Long.class);
+
+        MenuItem coffee = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build());
+        menuItemService.refreshCatalog();
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"waiterUsername\":\"waiter1@dataset.local\",\"status\":\"NEW\",\"items\":[" +
+                                "{\"menuItemId\":" + coffee.getId() + ",\"menuItemName\":\"Freddo\",\"quantity\":1}]}"))
+                .andExpect(status().isOk());
+
+        assertEquals(501L, jdbc.queryForObject("select count(*) from orders", Long.class));
+        assertTrue(jdbc.queryForObject("select max(id) from orders", Long.class) > maxOrderId);
+    }
+}
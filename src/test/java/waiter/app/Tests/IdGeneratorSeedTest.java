@@ -0,0 +1,83 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderItemDto;
+import waiter.app.entities.MenuItem;
+import waiter.app.migrations.DataMigrations;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.OrderService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdGeneratorSeedTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private DataMigrations dataMigrations;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long coffeeId;
+
+    @BeforeEach
+    public void seed() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        coffeeId = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build()).getId();
+        menuItemService.refreshCatalog();
+    }
+
+    private long nextVal(String generator) {
+        return jdbc.queryForObject("select next_val from id_generators where gen_name = ?", Long.class, generator);
+    }
+
+    @Test
+    public void generators_startAboveExistingIds() {
+        OrderDto order = new OrderDto();
+        order.setItems(List.of(new OrderItemDto(null, coffeeId, "Freddo", 1, null)));
+        Long orderId = orderService.createOrder(order, "waiter@test.com").getId();
+        long itemId = jdbc.queryForObject("select max(id) from order_items", Long.class);
+
+        // Rows written by the old auto_increment ids, and generators that know nothing about them
+        jdbc.update("insert into orders (id, status, waiter_username, total_amount_minor, version) " +
+                "values (?, 'NEW', 'waiter@test.com', 350, 0)", orderId + 1000);
+        jdbc.update("insert into order_items (id, order_id, menu_item_id, quantity, unit_price_minor) " +
+                "values (?, ?, ?, 1, 350)", itemId + 2000, orderId + 1000, coffeeId);
+        jdbc.update("update id_generators set next_val = 1");
+
+        dataMigrations.rerun("003-seed-id-generators");
+
+        assertEquals(orderId + 1000 + 51, nextVal("orders"));
+        assertEquals(itemId + 2000 + 51, nextVal("order_items"));
+
+        // A generator that is already ahead is left alone
+        jdbc.update("update id_generators set next_val = next_val + 500 where gen_name = 'orders'");
+        dataMigrations.rerun("003-seed-id-generators");
+        assertEquals(orderId + 1000 + 551, nextVal("orders"));
+    }
+}
@@ -0,0 +1,156 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
+import waiter.app.entities.MenuItem;
+import waiter.app.repositories.IdempotencyRecordRepository;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.OrderService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class IdempotencyKeyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @SpyBean
+    private OrderService orderService;
+
+    private String orderJson;
+
+    @BeforeEach
+    public void seed() {
+        idempotencyRecordRepository.deleteAll();
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        MenuItem coffee = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build());
+        menuItemService.refreshCatalog();
+
+        orderJson = "{\"waiterUsername\":\"waiter@test.com\",\"status\":\"NEW\",\"items\":[" +
+                "{\"menuItemId\":" + coffee.getId() + ",\"menuItemName\":\"Freddo\",\"quantity\":2}]}";
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void retriedCreate_replaysResponseWithoutSecondOrder() throws Exception {
+        String first = mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "tablet-7-0001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn().getResponse().getContentAsString();
+
+        String retry = mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "tablet-7-0001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retry);
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void keyReusedForDifferentRequest_isRejected() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "tablet-7-0002")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/orders/1/cancel").header("Idempotency-Key", "tablet-7-0002"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void keyReusedWithDifferentBody_isRejected() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "tablet-7-0003")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "tablet-7-0003")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson.replace("\"quantity\":2", "\"quantity\":3")))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void transientFailure_isNotReplayed() throws Exception {
+        doThrow(new CannotCreateTransactionException("connection refused"))
+                .doCallRealMethod()
+                .when(orderService).createOrder(any(), any());
+
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "tablet-7-0004")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson))
+                .andExpect(status().isInternalServerError());
+
+        mockMvc.perform(post("/api/orders")
+                        .header("Idempotency-Key", "tablet-7-0004")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void withoutKey_everyRequestRuns() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(orderJson))
+                    .andExpect(status().isOk());
+        }
+
+        assertEquals(2, orderRepository.count());
+    }
+}
@@ -0,0 +1,85 @@
+package waiter.app.Tests;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import waiter.app.utils.JwtUtil;
+
+import java.security.Key;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The verified-token cache: hits for repeat calls, never a way around the signature or expiry checks
+public class JwtUtilTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @Test
+    public void repeatCalls_areCacheHits() {
+        String token = jwtUtil.generateToken("waiter@test.com", "WAITER");
+
+        Claims first = jwtUtil.extractAllClaims(token);
+        Claims second = jwtUtil.extractAllClaims(token);
+
+        assertSame(first, second);
+        assertEquals("WAITER", jwtUtil.extractClaim(token, claims -> claims.get("role", String.class)));
+        assertEquals("waiter@test.com", jwtUtil.extractUsername(token));
+        assertEquals(1, jwtUtil.verifiedTokenCacheStats().missCount());
+        assertEquals(3, jwtUtil.verifiedTokenCacheStats().hitCount());
+        assertEquals(1, jwtUtil.verifiedTokenCacheSize());
+    }
+
+    @Test
+    public void tamperedToken_throwsAndIsNotCached() {
+        String token = jwtUtil.generateToken("waiter@test.com", "WAITER");
+        jwtUtil.extractAllClaims(token);
+
+        // Same header and claims, altered signature (not its last character, which carries padding bits)
+        int at = token.length() - 5;
+        String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        assertThrows(JwtException.class, () -> jwtUtil.extractAllClaims(tampered));
+        assertThrows(JwtException.class, () -> jwtUtil.extractAllClaims(tampered));
+        assertFalse(jwtUtil.validateToken(tampered));
+        assertEquals(1, jwtUtil.verifiedTokenCacheSize());
+        assertEquals(0, jwtUtil.verifiedTokenCacheStats().hitCount());
+    }
+
+    @Test
+    public void expiredToken_throwsAndIsNotCached() {
+        String expired = new JwtUtil(-1).generateToken("waiter@test.com", "WAITER");
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.extractAllClaims(expired));
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.extractAllClaims(expired));
+        assertEquals(0, jwtUtil.verifiedTokenCacheSize());
+    }
+
+    @Test
+    public void cachedEntry_expiresWithToken() throws Exception {
+        Key signingKey = (Key) ReflectionTestUtils.getField(jwtUtil, "signingKey");
+        String token = Jwts.builder()
+                .setSubject("waiter@test.com")
+                .claim("role", "WAITER")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+
+        jwtUtil.extractAllClaims(token);
+        jwtUtil.extractAllClaims(token);
+        assertEquals(1, jwtUtil.verifiedTokenCacheStats().hitCount());
+
+        Thread.sleep(1500);
+
+        // Served from the cache, this would still pass
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.extractAllClaims(token));
+        assertEquals(1, jwtUtil.verifiedTokenCacheStats().hitCount());
+    }
+}
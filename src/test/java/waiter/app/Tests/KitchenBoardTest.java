@@ -0,0 +1,179 @@
+package waiter.app.Tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.Enums.OrderEventType;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.entities.MenuItem;
+import waiter.app.events.OrderChangedEvent;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.KitchenBoard;
+import waiter.app.services.MenuItemService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class KitchenBoardTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private KitchenBoard kitchenBoard;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String orderJson;
+
+    @BeforeEach
+    public void seed() {
+        kitchenBoard.refreshPending();
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        kitchenBoard.rebuild();
+
+        MenuItem coffee = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build());
+        menuItemService.refreshCatalog();
+
+        orderJson = "{\"waiterUsername\":\"waiter@test.com\",\"status\":\"NEW\",\"items\":[" +
+                "{\"menuItemId\":" + coffee.getId() + ",\"menuItemName\":\"Freddo\",\"quantity\":2,\"comments\":\"no sugar\"}]}";
+    }
+
+    private long createOrder() throws Exception {
+        String body = mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(orderJson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    // The board is refreshed off the request thread; wait for the changes made so far
+    private void settle() {
+        kitchenBoard.refreshPending();
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void board_followsOrderLifecycle_oldestFirst() throws Exception {
+        long first = createOrder();
+        long second = createOrder();
+        settle();
+
+        mockMvc.perform(get("/api/kitchen/board"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tickets.length()").value(2))
+                .andExpect(jsonPath("$.tickets[0].orderId").value(first))
+                .andExpect(jsonPath("$.tickets[1].orderId").value(second))
+                .andExpect(jsonPath("$.tickets[0].items[0].menuItemName").value("Freddo"))
+                .andExpect(jsonPath("$.tickets[0].items[0].comments").value("no sugar"));
+
+        mockMvc.perform(put("/api/orders/" + first + "/status").param("status", "IN_PROGRESS"))
+                .andExpect(status().isOk());
+        settle();
+        mockMvc.perform(get("/api/kitchen/board").param("status", "IN_PROGRESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tickets.length()").value(1))
+                .andExpect(jsonPath("$.tickets[0].orderId").value(first));
+
+        mockMvc.perform(put("/api/orders/" + second + "/cancel"))
+                .andExpect(status().isOk());
+        settle();
+        mockMvc.perform(get("/api/kitchen/board"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tickets.length()").value(1))
+                .andExpect(jsonPath("$.tickets[0].status").value("IN_PROGRESS"));
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void board_isServedFromMemory_andSupportsConditionalGet() throws Exception {
+        createOrder();
+        settle();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String etag = mockMvc.perform(get("/api/kitchen/board"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/kitchen/board").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        createOrder();
+        settle();
+        mockMvc.perform(get("/api/kitchen/board").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tickets.length()").value(2));
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void rebuild_dropsTicketsForOrdersRemovedBehindItsBack() throws Exception {
+        createOrder();
+        settle();
+        orderRepository.deleteAll();
+
+        kitchenBoard.rebuild();
+
+        assertEquals(0, kitchenBoard.size());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void changesWithoutRequest_areReloadedTogether() throws Exception {
+        long first = createOrder();
+        long second = createOrder();
+        settle();
+
+        jdbc.update("update orders set status = 'IN_PROGRESS', version = version + 1 where id in (?, ?)", first, second);
+        for (long orderId : new long[]{first, second}) {
+            kitchenBoard.onOrderChanged(new OrderChangedEvent(orderId, OrderEventType.STATUS_CHANGED,
+                    OrderStatus.IN_PROGRESS, "waiter@test.com", null, 0, LocalDateTime.now()));
+        }
+        settle();
+
+        mockMvc.perform(get("/api/kitchen/board").param("status", "IN_PROGRESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tickets.length()").value(2))
+                .andExpect(jsonPath("$.tickets[0].orderId").value(first));
+    }
+}
@@ -0,0 +1,123 @@
+package waiter.app.Tests;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.entities.MenuItem;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.utils.JwtUtil;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Scrapes /actuator/prometheus with an admin token; no scrape ranges are configured by default
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    private String orderJson;
+
+    @BeforeEach
+    public void seed() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        MenuItem coffee = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build());
+        menuItemService.refreshCatalog();
+
+        orderJson = "{\"waiterUsername\":\"waiter@test.com\",\"status\":\"NEW\",\"items\":[" +
+                "{\"menuItemId\":" + coffee.getId() + ",\"menuItemName\":\"Freddo\",\"quantity\":2}]}";
+    }
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken("admin@test.com", "ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static boolean hasSample(String scrape, String name, String... labels) {
+        return Arrays.stream(scrape.split("\n"))
+                .filter(line -> line.startsWith(name + "{"))
+                .anyMatch(line -> Arrays.stream(labels).allMatch(line::contains));
+    }
+
+    @Test
+    public void prometheusScrape_coversRequestPathAndBusinessCounters() throws Exception {
+        double createdBefore = meterRegistry.counter("pda.orders.created").count();
+        String bearer = "Bearer " + jwtUtil.generateToken("waiter@test.com", "WAITER");
+
+        mockMvc.perform(post("/api/orders").header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON).content(orderJson))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/orders").header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"items\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(createdBefore + 1, meterRegistry.counter("pda.orders.created").count());
+
+        String scrape = scrape();
+        assertTrue(hasSample(scrape, "http_server_requests_seconds_count", "uri=\"/api/orders\"", "status=\"200\""));
+        assertTrue(hasSample(scrape, "http_server_requests_seconds_count", "uri=\"/api/orders\"", "status=\"400\""));
+        assertTrue(hasSample(scrape, "http_server_requests_seconds_bucket", "uri=\"/api/orders\""));
+        assertTrue(hasSample(scrape, "pda_orders_created_total"));
+        assertTrue(hasSample(scrape, "pda_orders_revenue_currency_total", "method=\"CARD\""));
+        assertTrue(hasSample(scrape, "pda_auth_jwt_seconds_count", "outcome=\"authenticated\""));
+        assertTrue(hasSample(scrape, "hikaricp_connections_pending"));
+        assertTrue(hasSample(scrape, "hibernate_statements_total"));
+    }
+
+    @Test
+    public void prometheusScrape_needsAdminByDefault() throws Exception {
+        // Loopback is not trusted: behind a reverse proxy every request would come from it
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                    request.setRemoteAddr("127.0.0.1");
+                    return request;
+                }))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken("waiter@test.com", "WAITER")))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/metrics").with(request -> {
+                    request.setRemoteAddr("127.0.0.1");
+                    return request;
+                }))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,132 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.entities.MenuItem;
+import waiter.app.entities.Order;
+import waiter.app.entities.OrderItem;
+import waiter.app.repositories.ArchivedOrderRepository;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.OrderArchiveService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrderArchiveTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    private MenuItem coffee;
+
+    @BeforeEach
+    public void seed() {
+        archivedOrderRepository.deleteAllInBatch();
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        coffee = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build());
+    }
+
+    private Long order(OrderStatus status, int ageDays) {
+        return order(status, ageDays, null);
+    }
+
+    private Long order(OrderStatus status, int ageDays, Integer refundedDaysAgo) {
+        Order order = Order.builder()
+                .createdAt(LocalDateTime.now().minusDays(ageDays))
+                .paidAt(status == OrderStatus.CANCELLED ? null : LocalDateTime.now().minusDays(ageDays))
+                .refundedAt(refundedDaysAgo == null ? null : LocalDateTime.now().minusDays(refundedDaysAgo))
+                .status(status)
+                .waiterUsername("waiter@test.com")
+                .totalAmountMinor(700)
+                .items(new ArrayList<>())
+                .build();
+        order.getItems().add(OrderItem.builder().order(order).menuItem(coffee).quantity(2).unitPriceMinor(350).build());
+        return orderRepository.save(order).getId();
+    }
+
+    @Test
+    public void archivesOnlyOldClosedOrders() {
+        Long oldPaid = order(OrderStatus.PAID, 200);
+        Long oldCancelled = order(OrderStatus.CANCELLED, 120);
+        Long oldOpen = order(OrderStatus.IN_PROGRESS, 200);
+        Long recentPaid = order(OrderStatus.PAID, 1);
+
+        assertEquals(2, orderArchiveService.archiveClosedOrders());
+
+        assertTrue(archivedOrderRepository.existsById(oldPaid));
+        assertTrue(archivedOrderRepository.existsById(oldCancelled));
+        assertTrue(orderRepository.existsById(oldOpen));
+        assertTrue(orderRepository.existsById(recentPaid));
+        assertEquals(2, orderRepository.count());
+    }
+
+    @Test
+    @WithMockUser(roles = {"WAITER"})
+    public void getOrderById_readsArchivedOrder() throws Exception {
+        Long oldPaid = order(OrderStatus.PAID, 200);
+        orderArchiveService.archiveClosedOrders();
+
+        mockMvc.perform(get("/api/orders/" + oldPaid))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("\"a" + oldPaid + "-")))
+                .andExpect(jsonPath("$.status").value("PAID"))
+                .andExpect(jsonPath("$.items[0].menuItemName").value("Freddo"))
+                .andExpect(jsonPath("$.items[0].quantity").value(2));
+    }
+
+    @Test
+    public void keepsOldOrdersWithRecentRefund() {
+        // Rebuilding the refund day reads the live table, so the order must still be there
+        Long lateRefund = order(OrderStatus.REFUNDED, 100, 20);
+        Long oldRefund = order(OrderStatus.REFUNDED, 200, 150);
+
+        assertEquals(1, orderArchiveService.archiveClosedOrders());
+
+        assertTrue(orderRepository.existsById(lateRefund));
+        assertTrue(archivedOrderRepository.existsById(oldRefund));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@test.com", roles = {"ADMIN"})
+    public void refundOrder_archived_conflicts() throws Exception {
+        Long oldPaid = order(OrderStatus.PAID, 200);
+        orderArchiveService.archiveClosedOrders();
+
+        mockMvc.perform(put("/api/orders/" + oldPaid + "/refund").param("reason", "late complaint"))
+                .andExpect(status().isConflict());
+        assertEquals(OrderStatus.PAID, archivedOrderRepository.findById(oldPaid).orElseThrow().getStatus());
+    }
+}
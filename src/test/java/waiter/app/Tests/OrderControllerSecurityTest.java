@@ -1,19 +1,27 @@
 package waiter.app.Tests;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import waiter.app.controllers.OrderController;
+import waiter.app.journal.OrderJournal;
+import waiter.app.services.IdempotencyStore;
+import waiter.app.services.KitchenBoard;
+import waiter.app.services.OrderEventStream;
 import waiter.app.services.OrderService;
+import waiter.app.services.OrderSyncService;
 import waiter.app.repositories.OrderRepository;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(OrderController.class)
+@Import(SimpleMeterRegistry.class) // JwtAuthenticationFilter records its timings
 public class OrderControllerSecurityTest {
 
     @Autowired
@@ -25,6 +33,21 @@ public class OrderControllerSecurityTest {
     @MockBean
     private OrderRepository orderRepository;
 
+    @MockBean
+    private OrderEventStream orderEventStream;
+
+    @MockBean
+    private OrderSyncService orderSyncService;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private KitchenBoard kitchenBoard;
+
+    @MockBean
+    private OrderJournal orderJournal;
+
     @Test
     public void getOrders_Unauthenticated_ShouldReturn401() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/api/orders"))
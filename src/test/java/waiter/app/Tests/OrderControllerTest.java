@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import waiter.app.Enums.OrderStatus;
 import waiter.app.Enums.PaymentMethod;
 import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderPageDto;
 import waiter.app.entities.Order;
 import waiter.app.repositories.OrderRepository;
 import waiter.app.services.OrderService;
@@ -19,6 +20,7 @@ import waiter.app.services.OrderService;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,27 +46,43 @@ public class OrderControllerTest {
         OrderDto order = new OrderDto();
         order.setId(1L);
 
-        when(orderService.getAllOrders()).thenReturn(List.of(order));
+        when(orderService.getOrders(null, null)).thenReturn(new OrderPageDto(List.of(order), "next"));
 
         mockMvc.perform(get("/api/orders"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L));
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
     }
 
     @Test
     public void testGetOrderById_found() throws Exception {
-        Order order = new Order();
+        OrderDto order = new OrderDto();
         order.setId(1L);
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderService.getOrderETag(1L)).thenReturn(Optional.of("\"1-3\""));
+        when(orderService.getOrderDtoById(1L)).thenReturn(order);
 
-        mockMvc.perform(get("/api/orders/1"))
+        // The browser client can only send If-None-Match if CORS lets it read the ETag
+        mockMvc.perform(get("/api/orders/1").header("Origin", "http://localhost:3000"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(header().string("Access-Control-Expose-Headers", containsString("ETag")))
                 .andExpect(jsonPath("$.id").value(1L));
     }
 
+    @Test
+    public void testGetOrderById_notModified() throws Exception {
+        when(orderService.getOrderETag(1L)).thenReturn(Optional.of("\"1-3\""));
+
+        mockMvc.perform(get("/api/orders/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""));
+
+        verify(orderService, never()).getOrderDtoById(1L);
+    }
+
     @Test
     public void testGetOrderById_notFound() throws Exception {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderService.getOrderETag(1L)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/orders/1"))
                 .andExpect(status().isNotFound())
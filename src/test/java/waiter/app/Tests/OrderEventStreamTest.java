@@ -0,0 +1,138 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import waiter.app.Enums.OrderEventType;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.events.OrderChangedEvent;
+import waiter.app.services.OrderEventStream;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrderEventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderEventStream orderEventStream;
+
+    private static OrderChangedEvent event(long orderId, OrderEventType type, OrderStatus status) {
+        return new OrderChangedEvent(orderId, type, status, "waiter@test.com", null, 0, LocalDateTime.now());
+    }
+
+    private MvcResult subscribe(String query, String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder builder = get("/api/orders/stream" + query);
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    // Sending is asynchronous; wait until the marker has been written
+    private String awaitContent(MvcResult result, String marker) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(marker) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(marker), "missing " + marker + " in " + content);
+        return content;
+    }
+
+    private static String idOf(String content, long orderId) {
+        for (String block : content.split("\n\n")) {
+            if (block.contains("\"orderId\":" + orderId + ",")) {
+                for (String line : block.split("\n")) {
+                    if (line.startsWith("id:")) {
+                        return line.substring(3);
+                    }
+                }
+            }
+        }
+        throw new AssertionError("no event for order " + orderId);
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void statusFilter_keepsTransitionsOutOfTheWatchedStatuses() throws Exception {
+        MvcResult kitchen = subscribe("?status=NEW,IN_PROGRESS", null);
+
+        orderEventStream.onOrderChanged(event(9001, OrderEventType.CREATED, OrderStatus.NEW));
+        orderEventStream.onOrderChanged(event(9002, OrderEventType.ITEM_ADDED, OrderStatus.READY));
+        orderEventStream.onOrderChanged(event(9001, OrderEventType.STATUS_CHANGED, OrderStatus.READY));
+        orderEventStream.onOrderChanged(event(9003, OrderEventType.STATUS_CHANGED, OrderStatus.PAID));
+        orderEventStream.onOrderChanged(event(9004, OrderEventType.CREATED, OrderStatus.NEW));
+
+        String content = awaitContent(kitchen, "\"orderId\":9004,");
+        assertTrue(content.contains("\"orderId\":9001,\"status\":\"READY\""));
+        assertFalse(content.contains("\"orderId\":9002,"));
+        // PAID can only follow READY, which this client does not watch
+        assertFalse(content.contains("\"orderId\":9003,"));
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void lastEventId_resumesAfterIt_andIdsFromAnotherBootReset() throws Exception {
+        MvcResult live = subscribe("", null);
+        orderEventStream.onOrderChanged(event(9101, OrderEventType.CREATED, OrderStatus.NEW));
+        orderEventStream.onOrderChanged(event(9102, OrderEventType.CREATED, OrderStatus.NEW));
+        orderEventStream.onOrderChanged(event(9103, OrderEventType.CREATED, OrderStatus.NEW));
+        String first = idOf(awaitContent(live, "\"orderId\":9103,"), 9101);
+
+        String resumed = awaitContent(subscribe("", first), "\"orderId\":9103,");
+        assertTrue(resumed.contains("\"orderId\":9102,"));
+        assertFalse(resumed.contains("\"orderId\":9101,"));
+
+        // Same sequence number, earlier boot
+        String otherBoot = "0-" + first.substring(first.indexOf('-') + 1);
+        String reset = awaitContent(subscribe("", otherBoot), "event:RESET");
+        assertFalse(reset.contains("\"orderId\":9102,"));
+    }
+
+    @Test
+    public void slowSubscriber_isDisconnectedWhenItsBufferOverflows() {
+        OrderEventStream stream = new OrderEventStream(2, 16, 10, 60000);
+        try {
+            SseEmitter emitter = stream.subscribe(null, null, null);
+            assertNotNull(emitter);
+            assertEquals(1, stream.subscriberCount());
+
+            // SseEmitter.send locks the emitter: holding it stalls the sender like a slow network
+            synchronized (emitter) {
+                for (long orderId = 1; orderId <= 4; orderId++) {
+                    stream.onOrderChanged(event(orderId, OrderEventType.CREATED, OrderStatus.NEW));
+                }
+            }
+            assertEquals(0, stream.subscriberCount());
+        } finally {
+            stream.shutdown();
+        }
+    }
+
+    @Test
+    public void emptyBuffers_areRejectedAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderEventStream(256, 0, 10, 60000));
+        assertThrows(IllegalArgumentException.class, () -> new OrderEventStream(0, 16, 10, 60000));
+    }
+}
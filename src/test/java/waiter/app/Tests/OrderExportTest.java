@@ -0,0 +1,122 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.entities.MenuItem;
+import waiter.app.entities.Order;
+import waiter.app.entities.OrderItem;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrderExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @BeforeEach
+    public void seed() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        MenuItem coffee = menuItemRepository.save(MenuItem.builder().name("Freddo, sweet").price(3.5).available(true).build());
+        MenuItem toast = menuItemRepository.save(MenuItem.builder().name("Toast").price(2.0).available(true).build());
+
+        for (OrderStatus status : new OrderStatus[]{OrderStatus.PAID, OrderStatus.PAID, OrderStatus.CANCELLED}) {
+            Order order = Order.builder()
+                    .createdAt(LocalDateTime.now())
+                    .status(status)
+                    .waiterUsername("waiter@test.com")
+                    .totalAmountMinor(550)
+                    .items(new ArrayList<>())
+                    .build();
+            order.getItems().add(OrderItem.builder().order(order).menuItem(coffee).quantity(1).unitPriceMinor(350).build());
+            order.getItems().add(OrderItem.builder().order(order).menuItem(toast).quantity(1).unitPriceMinor(200).build());
+            orderRepository.save(order);
+        }
+    }
+
+    private String export(String format, String status) throws Exception {
+        String today = LocalDate.now().toString();
+        MvcResult started = mockMvc.perform(get("/api/admin/orders/export")
+                        .param("from", today).param("to", today)
+                        .param("format", format).param("status", status))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    public void csvExport_writesOneRowPerLineForFilteredStatuses() throws Exception {
+        String[] lines = export("CSV", "PAID").split("\r\n");
+
+        assertEquals(1 + 4, lines.length);
+        assertTrue(lines[0].startsWith("order_id,created_at,status"));
+        assertTrue(lines[1].contains(",PAID,"));
+        assertTrue(export("CSV", "PAID").contains("\"Freddo, sweet\""));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    public void csvExport_neutralizesFormulaCells() throws Exception {
+        MenuItem toast = menuItemRepository.findAll().stream()
+                .filter(item -> item.getName().equals("Toast")).findFirst().orElseThrow();
+        toast.setName("=HYPERLINK(\"http://evil.test\",\"Toast\")");
+        menuItemRepository.save(toast);
+
+        String csv = export("CSV", "PAID");
+
+        assertTrue(csv.contains(",\"'=HYPERLINK(\"\"http://evil.test\"\",\"\"Toast\"\")\","));
+        assertFalse(csv.contains(",=HYPERLINK"));
+        // Numbers and dates are written as they are
+        assertTrue(csv.contains(",3.50,"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    public void ndjsonExport_writesOneObjectPerLine() throws Exception {
+        String[] lines = export("NDJSON", "CANCELLED").split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"order_id\":"));
+        assertTrue(lines[0].contains("\"status\":\"CANCELLED\""));
+    }
+
+    @Test
+    @WithMockUser(roles = {"WAITER"})
+    public void export_isAdminOnly() throws Exception {
+        String today = LocalDate.now().toString();
+        mockMvc.perform(get("/api/admin/orders/export").param("from", today).param("to", today))
+                .andExpect(status().isForbidden());
+    }
+}
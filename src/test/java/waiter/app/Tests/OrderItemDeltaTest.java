@@ -0,0 +1,183 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderItemDto;
+import waiter.app.entities.MenuItem;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.OrderService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrderItemDeltaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long coffeeId;
+    private Long toastId;
+    private Long orderId;
+
+    @BeforeEach
+    public void seed() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        coffeeId = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build()).getId();
+        toastId = menuItemRepository.save(MenuItem.builder().name("Toast").price(2.0).available(true).build()).getId();
+        menuItemService.refreshCatalog();
+
+        OrderDto order = new OrderDto();
+        order.setItems(List.of(new OrderItemDto(null, coffeeId, "Freddo", 1, null)));
+        orderId = orderService.createOrder(order, "waiter@test.com").getId();
+    }
+
+    private String delta(Long menuItemId, int delta) {
+        return "{\"menuItemId\":" + menuItemId + ",\"delta\":" + delta + "}";
+    }
+
+    private int lineQuantity(Long menuItemId) {
+        List<Integer> quantities = jdbc.queryForList(
+                "select quantity from order_items where order_id = ? and menu_item_id = ?",
+                Integer.class, orderId, menuItemId);
+        return quantities.isEmpty() ? 0 : quantities.get(0);
+    }
+
+    private long version() {
+        return jdbc.queryForObject("select version from orders where id = ?", Long.class, orderId);
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void delta_createsIncrementsAndDeletesLine() throws Exception {
+        mockMvc.perform(post("/api/orders/" + orderId + "/items/delta")
+                        .contentType(MediaType.APPLICATION_JSON).content(delta(toastId, 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(2))
+                .andExpect(jsonPath("$.orderTotalMinor").value(350 + 2 * 200));
+
+        mockMvc.perform(post("/api/orders/" + orderId + "/items/delta")
+                        .contentType(MediaType.APPLICATION_JSON).content(delta(coffeeId, 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(2))
+                .andExpect(jsonPath("$.orderTotalMinor").value(2 * 350 + 2 * 200));
+
+        // Removing more than the line holds deletes the line and only subtracts what was there
+        mockMvc.perform(post("/api/orders/" + orderId + "/items/delta")
+                        .contentType(MediaType.APPLICATION_JSON).content(delta(toastId, -5)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(0))
+                .andExpect(jsonPath("$.orderTotalMinor").value(2 * 350));
+
+        assertEquals(0, lineQuantity(toastId));
+        assertEquals(2 * 350, orderRepository.findById(orderId).orElseThrow().getTotalAmountMinor());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void removingAbsentItem_keepsVersion() throws Exception {
+        long version = version();
+
+        mockMvc.perform(post("/api/orders/" + orderId + "/items/delta")
+                        .contentType(MediaType.APPLICATION_JSON).content(delta(toastId, -1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(0))
+                .andExpect(jsonPath("$.orderTotalMinor").value(350));
+        assertEquals(version, version());
+
+        mockMvc.perform(post("/api/orders/" + orderId + "/items/delta")
+                        .contentType(MediaType.APPLICATION_JSON).content(delta(toastId, 1)))
+                .andExpect(status().isOk());
+        assertEquals(version + 1, version());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void delta_onClosedOrder_isConflict() throws Exception {
+        orderService.cancelOrder(orderId, "waiter@test.com");
+
+        mockMvc.perform(post("/api/orders/" + orderId + "/items/delta")
+                        .contentType(MediaType.APPLICATION_JSON).content(delta(coffeeId, 1)))
+                .andExpect(status().isConflict());
+
+        assertEquals(1, lineQuantity(coffeeId));
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findStatusById(orderId).orElseThrow());
+    }
+
+    @Test
+    public void concurrentDeltas_areAllApplied() throws Exception {
+        int threads = 8;
+        int rounds = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                // Half the threads race to create the toast line, the rest add and remove coffee
+                boolean toast = t % 2 == 0;
+                tasks.add(() -> {
+                    for (int i = 0; i < rounds; i++) {
+                        if (toast) {
+                            orderService.applyItemDelta(orderId, toastId, 1, null);
+                        } else {
+                            orderService.applyItemDelta(orderId, coffeeId, 2, null);
+                            orderService.applyItemDelta(orderId, coffeeId, -1, null);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int toastQuantity = threads / 2 * rounds;
+        int coffeeQuantity = 1 + threads / 2 * rounds;
+        assertEquals(toastQuantity, lineQuantity(toastId));
+        assertEquals(coffeeQuantity, lineQuantity(coffeeId));
+        assertEquals(toastQuantity * 200L + coffeeQuantity * 350L,
+                orderRepository.findById(orderId).orElseThrow().getTotalAmountMinor());
+    }
+}
@@ -0,0 +1,139 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import waiter.app.Enums.JournalEntryType;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+import waiter.app.entities.MenuItem;
+import waiter.app.entities.Order;
+import waiter.app.entities.OrderItem;
+import waiter.app.journal.JournalRecord;
+import waiter.app.journal.OrderJournal;
+import waiter.app.journal.OrderJournalEntry;
+import waiter.app.journal.OrderJournalReplay;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderJournalTest {
+
+    private static final int SMALL_SEGMENT = 2048;
+
+    @TempDir
+    Path directory;
+
+    private static Order order(long id, OrderStatus status) {
+        Order order = Order.builder()
+                .id(id)
+                .createdAt(LocalDateTime.now())
+                .status(status)
+                .waiterUsername("waiter@test.com")
+                .items(new ArrayList<>())
+                .totalAmountMinor(700)
+                .paymentMethod(PaymentMethod.CARD)
+                .refundedBy("admin@test.com")
+                .refundReason("Cold coffee")
+                .build();
+        order.getItems().add(OrderItem.builder().order(order).menuItem(MenuItem.builder().id(5L).build())
+                .quantity(2).unitPriceMinor(350).build());
+        return order;
+    }
+
+    private static List<Long> sequences(Path directory) throws Exception {
+        List<Long> sequences = new ArrayList<>();
+        OrderJournalReplay.forEach(directory, record -> sequences.add(record.getSequence()));
+        return sequences;
+    }
+
+    @Test
+    public void appendsRotateSegments_andReplayRebuildsOpenOrders() throws Exception {
+        OrderJournal journal = new OrderJournal(true, directory, SMALL_SEGMENT);
+        for (long id = 1; id <= 40; id++) {
+            journal.append(OrderJournalEntry.created(order(id, OrderStatus.NEW)));
+            journal.append(OrderJournalEntry.itemChanged(id, OrderStatus.NEW, 9L, 3, 200));
+            if (id % 2 == 0) {
+                journal.append(OrderJournalEntry.statusChanged(id, OrderStatus.READY));
+                journal.append(OrderJournalEntry.paid(order(id, OrderStatus.PAID)));
+            }
+        }
+        journal.append(OrderJournalEntry.itemChanged(1, OrderStatus.NEW, 5L, -2, 350));
+        journal.append(OrderJournalEntry.refunded(order(2, OrderStatus.REFUNDED)));
+        journal.append(OrderJournalEntry.deleted(3, "admin@test.com"));
+        journal.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1, "expected the journal to rotate");
+        }
+        List<Long> sequences = sequences(directory);
+        assertEquals(123, sequences.size());
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals(i + 1, sequences.get(i));
+        }
+        assertEquals(123, journal.appendedCount());
+        assertEquals(0, journal.failedCount());
+
+        Map<Long, OrderJournalReplay.ReplayedOrder> open = OrderJournalReplay.openOrders(directory);
+        assertEquals(19, open.size()); // odd ids, minus the deleted order 3
+        OrderJournalReplay.ReplayedOrder first = open.get(1L);
+        assertTrue(first.isComplete());
+        assertEquals(Map.of(9L, 3), first.getQuantities());
+        assertEquals(700 + 600 - 700, first.getTotalAmountMinor());
+        assertFalse(open.containsKey(3L));
+
+        List<JournalRecord> history = OrderJournalReplay.history(directory, 2);
+        assertEquals(List.of(JournalEntryType.CREATED, JournalEntryType.ITEM_ADDED, JournalEntryType.STATUS_CHANGED,
+                        JournalEntryType.PAID, JournalEntryType.REFUNDED),
+                history.stream().map(record -> record.getEntry().getType()).toList());
+        OrderJournalEntry refund = history.get(4).getEntry();
+        assertEquals("admin@test.com", refund.getActor());
+        assertEquals("Cold coffee", refund.getNote());
+        assertEquals(PaymentMethod.CARD, history.get(3).getEntry().getPaymentMethod());
+    }
+
+    @Test
+    public void reopen_continuesSequence_andDiscardsTornTail() throws Exception {
+        OrderJournal journal = new OrderJournal(true, directory, SMALL_SEGMENT * 8);
+        journal.append(OrderJournalEntry.created(order(1, OrderStatus.NEW)));
+        journal.append(OrderJournalEntry.deleted(7, "admin@test.com")); // ends in non-zero bytes
+        journal.close();
+
+        // Simulate a crash half-way through a record: a length and garbage with a wrong checksum
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long end = file.length() - 1;
+            while (end > 0) {
+                file.seek(end);
+                if (file.read() != 0) {
+                    break;
+                }
+                end--;
+            }
+            file.seek(end + 1);
+            file.writeInt(40);
+            file.writeInt(12345);
+            file.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        assertEquals(List.of(1L, 2L), sequences(directory));
+
+        OrderJournal reopened = new OrderJournal(true, directory, SMALL_SEGMENT * 8);
+        reopened.append(OrderJournalEntry.statusChanged(1, OrderStatus.IN_PROGRESS));
+        reopened.close();
+
+        assertEquals(List.of(1L, 2L, 3L), sequences(directory));
+        assertEquals(OrderStatus.IN_PROGRESS, OrderJournalReplay.openOrders(directory).get(1L).getStatus());
+    }
+}
@@ -0,0 +1,106 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderItemDto;
+import waiter.app.entities.MenuItem;
+import waiter.app.migrations.DataMigrations;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.OrderService;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderLineMergeTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private DataMigrations dataMigrations;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Long coffeeId;
+    private Long toastId;
+
+    @BeforeEach
+    public void seed() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        coffeeId = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build()).getId();
+        toastId = menuItemRepository.save(MenuItem.builder().name("Toast").price(2.0).available(true).build()).getId();
+        menuItemService.refreshCatalog();
+    }
+
+    private OrderDto order(OrderItemDto... items) {
+        OrderDto dto = new OrderDto();
+        dto.setItems(List.of(items));
+        return dto;
+    }
+
+    @Test
+    public void repeatedMenuItem_isMergedIntoOneLine() {
+        OrderDto saved = orderService.createOrder(order(
+                new OrderItemDto(null, coffeeId, "Freddo", 1, "no sugar"),
+                new OrderItemDto(null, toastId, "Toast", 1, null),
+                new OrderItemDto(null, coffeeId, "Freddo", 2, "extra ice")), "waiter@test.com");
+
+        assertEquals(2, saved.getItems().size());
+        OrderItemDto coffee = saved.getItems().stream()
+                .filter(item -> item.getMenuItemId().equals(coffeeId)).findFirst().orElseThrow();
+        assertEquals(3, coffee.getQuantity());
+        assertEquals("no sugar; extra ice", coffee.getComments());
+        assertEquals(3 * 350 + 200, orderRepository.findById(saved.getId()).orElseThrow().getTotalAmountMinor());
+    }
+
+    @Test
+    public void migration_mergesExistingDuplicates_andRestoresConstraint() {
+        Long orderId = orderService.createOrder(order(
+                new OrderItemDto(null, coffeeId, "Freddo", 1, "no sugar")), "waiter@test.com").getId();
+        long lineId = jdbc.queryForObject("select max(id) from order_items", Long.class);
+
+        // A database that predates the constraint
+        jdbc.execute("alter table order_items drop constraint uk_order_items_order_menu_item");
+        jdbc.update("insert into order_items (id, order_id, menu_item_id, quantity, comments, unit_price_minor) " +
+                "values (?, ?, ?, 2, 'extra ice', 350)", lineId + 1000, orderId, coffeeId);
+        jdbc.update("insert into order_items (id, order_id, menu_item_id, quantity, comments, unit_price_minor) " +
+                "values (?, ?, ?, 1, 'no sugar', 350)", lineId + 1001, orderId, coffeeId);
+
+        dataMigrations.rerun("010-merge-duplicate-order-lines");
+
+        List<Map<String, Object>> lines = jdbc.queryForList(
+                "select id, quantity, comments from order_items where order_id = ?", orderId);
+        assertEquals(1, lines.size());
+        assertEquals(lineId, ((Number) lines.get(0).get("id")).longValue());
+        assertEquals(4, ((Number) lines.get(0).get("quantity")).intValue());
+        assertEquals("no sugar; extra ice", lines.get(0).get("comments"));
+
+        assertThrows(Exception.class, () -> jdbc.update(
+                "insert into order_items (id, order_id, menu_item_id, quantity, unit_price_minor) " +
+                        "values (?, ?, ?, 1, 350)", lineId + 1002, orderId, coffeeId));
+    }
+}
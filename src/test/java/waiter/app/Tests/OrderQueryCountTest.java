@@ -0,0 +1,171 @@
+package waiter.app.Tests;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.entities.MenuItem;
+import waiter.app.entities.Order;
+import waiter.app.entities.OrderItem;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.MenuSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards against N+1 regressions: the statement count per endpoint must not grow with the data
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrderQueryCountTest {
+
+    private static final int ORDERS = 20;
+    private static final int ITEMS_PER_ORDER = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstOrderId;
+
+    @BeforeEach
+    public void seed() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            menu.add(menuItemRepository.save(MenuItem.builder().name("Item " + i).price(2.5 + i).available(true).build()));
+        }
+        // Saved behind the service's back: rebuild now so no request below pays for a catalog miss
+        menuItemService.refreshCatalog();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = Order.builder()
+                    .createdAt(now.minusMinutes(o))
+                    .status(OrderStatus.NEW)
+                    .waiterUsername("waiter@test.com")
+                    .items(new ArrayList<>())
+                    .build();
+            for (MenuItem menuItem : menu) {
+                order.getItems().add(OrderItem.builder().order(order).menuItem(menuItem).quantity(1).build());
+            }
+            Order saved = orderRepository.save(order);
+            if (firstOrderId == null || saved.getId() < firstOrderId) {
+                firstOrderId = saved.getId();
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @WithMockUser(roles = {"WAITER"})
+    public void listOrders_usesConstantStatementCount() throws Exception {
+        mockMvc.perform(get("/api/orders").param("limit", String.valueOf(ORDERS)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(ORDERS));
+
+        // orders page + batched items + batched menu items
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void searchOrders_filtersWithConstantStatementCount() throws Exception {
+        mockMvc.perform(get("/api/orders/search")
+                        .param("mine", "true")
+                        .param("status", "NEW", "IN_PROGRESS")
+                        .param("limit", String.valueOf(ORDERS)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(ORDERS));
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/orders/search").param("status", "PAID"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    @WithMockUser(roles = {"WAITER"})
+    public void getOrderById_usesVersionLookupPlusSingleGraphQuery() throws Exception {
+        mockMvc.perform(get("/api/orders/" + firstOrderId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.items.length()").value(ITEMS_PER_ORDER));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @WithMockUser(roles = {"WAITER"})
+    public void getOrderById_notModified_skipsOrderLoad() throws Exception {
+        String etag = mockMvc.perform(get("/api/orders/" + firstOrderId))
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        mockMvc.perform(get("/api/orders/" + firstOrderId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void catalogMiss_rebuildsOnceThenHits() {
+        MenuItem added = menuItemRepository.save(MenuItem.builder().name("Late item").price(4.0).available(true).build());
+        long version = menuItemService.getCatalogStats().getVersion();
+        long misses = menuItemService.getCatalogStats().getMisses();
+        statistics.clear();
+
+        // existence check + full catalog reload
+        MenuSnapshot.Entry entry = menuItemService.findMenuEntry(added.getId());
+        assertNotNull(entry);
+        assertEquals("Late item", entry.getName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(version + 1, menuItemService.getCatalogStats().getVersion());
+        assertEquals(misses + 1, menuItemService.getCatalogStats().getMisses());
+
+        statistics.clear();
+        assertNotNull(menuItemService.findMenuEntry(added.getId()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // An id that does not exist costs the existence check only, not a rebuild
+        assertNull(menuItemService.findMenuEntry(added.getId() + 1000));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(version + 1, menuItemService.getCatalogStats().getVersion());
+    }
+}
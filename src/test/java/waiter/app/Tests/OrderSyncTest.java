@@ -0,0 +1,136 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.entities.MenuItem;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.repositories.SyncAppliedOpRepository;
+import waiter.app.services.MenuItemService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrderSyncTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private SyncAppliedOpRepository syncAppliedOpRepository;
+
+    private Long coffeeId;
+    private Long toastId;
+
+    @BeforeEach
+    public void seed() {
+        syncAppliedOpRepository.deleteAll();
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        coffeeId = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build()).getId();
+        toastId = menuItemRepository.save(MenuItem.builder().name("Toast").price(2.0).available(true).build()).getId();
+        menuItemService.refreshCatalog();
+    }
+
+    private String batch(String deviceId, String... operations) {
+        return "{\"deviceId\":\"" + deviceId + "\",\"operations\":[" + String.join(",", operations) + "]}";
+    }
+
+    private String createOp(long seq, String ref) {
+        return "{\"clientSeq\":" + seq + ",\"type\":\"CREATE_ORDER\",\"clientOrderRef\":\"" + ref + "\",\"items\":[" +
+                "{\"menuItemId\":" + coffeeId + ",\"menuItemName\":\"Freddo\",\"quantity\":1}]}";
+    }
+
+    private String addOp(long seq, String ref, Long menuItemId, int quantity) {
+        return "{\"clientSeq\":" + seq + ",\"type\":\"ADD_ITEM\",\"clientOrderRef\":\"" + ref + "\"," +
+                "\"menuItemId\":" + menuItemId + ",\"quantity\":" + quantity + "}";
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void replayedBatch_isAppliedOnce() throws Exception {
+        String body = batch("pda-3", createOp(1, "t7-a"), addOp(2, "t7-a", toastId, 2),
+                "{\"clientSeq\":3,\"type\":\"CHANGE_STATUS\",\"clientOrderRef\":\"t7-a\",\"status\":\"IN_PROGRESS\"}");
+
+        mockMvc.perform(post("/api/orders/sync").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.results[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.results[2].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.orders[0].status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.orders[0].items.length()").value(2));
+
+        mockMvc.perform(post("/api/orders/sync").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.results[0].outcome").value("DUPLICATE"))
+                .andExpect(jsonPath("$.results[1].outcome").value("DUPLICATE"))
+                .andExpect(jsonPath("$.orders.length()").value(1));
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void failingOperation_rollsBackWholeBatch() throws Exception {
+        String body = batch("pda-4", createOp(10, "t2-a"), addOp(11, "t2-a", -1L, 1), addOp(12, "t2-a", toastId, 1));
+
+        mockMvc.perform(post("/api/orders/sync").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(false))
+                .andExpect(jsonPath("$.results[0].outcome").value("NOT_APPLIED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("FAILED"))
+                .andExpect(jsonPath("$.results[2].outcome").value("NOT_APPLIED"))
+                .andExpect(jsonPath("$.orders.length()").value(0));
+
+        assertEquals(0, orderRepository.count());
+        assertEquals(0, syncAppliedOpRepository.count());
+    }
+
+    @Test
+    public void sameDeviceId_isTrackedPerUser() throws Exception {
+        // Two PDAs that report the same id, each starting its queue at 1
+        String body = batch("pda-shared", createOp(1, "t1-a"), addOp(2, "t1-a", toastId, 1));
+
+        mockMvc.perform(post("/api/orders/sync").with(user("anna@test.com").roles("WAITER"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("APPLIED"));
+
+        mockMvc.perform(post("/api/orders/sync").with(user("nikos@test.com").roles("WAITER"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.results[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.orders.length()").value(1))
+                .andExpect(jsonPath("$.orders[0].waiterUsername").value("nikos@test.com"));
+
+        assertEquals(2, orderRepository.count());
+        assertEquals(4, syncAppliedOpRepository.count());
+    }
+}
@@ -0,0 +1,151 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+import waiter.app.dto.AddOrderItemRequest;
+import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderItemDto;
+import waiter.app.dto.RemoveOrderItemRequest;
+import waiter.app.entities.MenuItem;
+import waiter.app.migrations.DataMigrations;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.OrderService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderTotalsTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private DataMigrations dataMigrations;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private MenuItem coffee;
+    private MenuItem toast;
+
+    @BeforeEach
+    public void seed() {
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        coffee = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build());
+        toast = menuItemRepository.save(MenuItem.builder().name("Toast").price(2.05).available(true).build());
+        menuItemService.refreshCatalog();
+    }
+
+    private Long createOrder(int coffees) {
+        OrderDto order = new OrderDto();
+        order.setItems(List.of(new OrderItemDto(null, coffee.getId(), "Freddo", coffees, null)));
+        return orderService.createOrder(order, "waiter@test.com").getId();
+    }
+
+    private long total(Long orderId) {
+        return orderRepository.findById(orderId).orElseThrow().getTotalAmountMinor();
+    }
+
+    private void add(Long orderId, MenuItem item, int quantity) {
+        AddOrderItemRequest request = new AddOrderItemRequest();
+        request.setMenuItemId(item.getId());
+        request.setQuantity(quantity);
+        orderService.addItemToOrder(orderId, request);
+    }
+
+    private void remove(Long orderId, MenuItem item, int quantity) {
+        RemoveOrderItemRequest request = new RemoveOrderItemRequest();
+        request.setMenuItemId(item.getId());
+        request.setQuantity(quantity);
+        orderService.removeItemFromOrder(orderId, request);
+    }
+
+    @Test
+    public void total_followsCreateAddRemoveAndPay() {
+        Long orderId = createOrder(2);
+        assertEquals(700, total(orderId));
+
+        add(orderId, toast, 3);
+        assertEquals(700 + 3 * 205, total(orderId));
+
+        add(orderId, coffee, 1);
+        assertEquals(3 * 350 + 3 * 205, total(orderId));
+
+        remove(orderId, toast, 1);
+        assertEquals(3 * 350 + 2 * 205, total(orderId));
+
+        // Removing more than the line holds deletes it; removing an absent item is a no-op
+        remove(orderId, toast, 5);
+        remove(orderId, toast, 1);
+        assertEquals(3 * 350, total(orderId));
+
+        orderService.updateStatus(orderId, OrderStatus.READY);
+        orderService.payOrder(orderId, PaymentMethod.CARD);
+        assertEquals(3 * 350, total(orderId));
+    }
+
+    @Test
+    public void menuPriceChange_keepsPriceOfOpenLines() {
+        Long orderId = createOrder(1);
+
+        coffee.setPrice(4.0);
+        menuItemRepository.save(coffee);
+        menuItemService.refreshCatalog();
+
+        // The existing line keeps the price it was opened with
+        add(orderId, coffee, 1);
+        assertEquals(2 * 350, total(orderId));
+
+        Long newOrderId = createOrder(1);
+        assertEquals(400, total(newOrderId));
+    }
+
+    @Test
+    public void backfill_fillsRowsThatPredateMinorAmounts() {
+        Long oldTotalOrder = createOrder(2);
+        Long summedOrder = createOrder(1);
+        add(summedOrder, toast, 2);
+
+        // A database written before the minor-unit columns existed
+        jdbc.execute("alter table orders add column total_amount double");
+        try {
+            jdbc.update("update order_items set unit_price_minor = 0");
+            jdbc.update("update orders set total_amount_minor = 0");
+            jdbc.update("update orders set total_amount = 7.01 where id = ?", oldTotalOrder);
+
+            dataMigrations.rerun("009-backfill-minor-amounts");
+
+            assertEquals(0, jdbc.queryForObject(
+                    "select count(*) from order_items where unit_price_minor = 0", Integer.class));
+            assertEquals(350, jdbc.queryForObject(
+                    "select unit_price_minor from order_items where menu_item_id = ? and order_id = ?",
+                    Long.class, coffee.getId(), oldTotalOrder));
+            assertEquals(701, total(oldTotalOrder));
+            assertEquals(350 + 2 * 205, total(summedOrder));
+        } finally {
+            jdbc.execute("alter table orders drop column total_amount");
+        }
+    }
+}
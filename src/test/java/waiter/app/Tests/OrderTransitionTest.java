@@ -0,0 +1,179 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+import waiter.app.Enums.RollupBucket;
+import waiter.app.Enums.RollupDimension;
+import waiter.app.dto.OrderDto;
+import waiter.app.dto.OrderItemDto;
+import waiter.app.entities.MenuItem;
+import waiter.app.exceptions.OrderConflictException;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.repositories.SalesRollupRepository;
+import waiter.app.services.MenuItemService;
+import waiter.app.services.OrderService;
+import waiter.app.services.SalesRollupService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrderTransitionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    private Long coffeeId;
+
+    @BeforeEach
+    public void seed() {
+        salesRollupRepository.deleteAll();
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+
+        coffeeId = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build()).getId();
+        menuItemService.refreshCatalog();
+    }
+
+    private Long order(OrderStatus status) {
+        OrderDto order = new OrderDto();
+        order.setItems(List.of(new OrderItemDto(null, coffeeId, "Freddo", 2, "no sugar")));
+        Long orderId = orderService.createOrder(order, "waiter@test.com").getId();
+        if (status != OrderStatus.NEW) {
+            orderService.updateStatus(orderId, status);
+        }
+        return orderId;
+    }
+
+    @Test
+    public void transitionTable() {
+        assertTrue(OrderStatus.NEW.canTransitionTo(OrderStatus.IN_PROGRESS));
+        assertTrue(OrderStatus.READY.canTransitionTo(OrderStatus.IN_PROGRESS));
+        assertTrue(OrderStatus.READY.canTransitionTo(OrderStatus.PAID));
+        assertTrue(OrderStatus.PAID.canTransitionTo(OrderStatus.REFUNDED));
+        assertFalse(OrderStatus.NEW.canTransitionTo(OrderStatus.PAID));
+        assertFalse(OrderStatus.PAID.canTransitionTo(OrderStatus.CANCELLED));
+        for (OrderStatus target : OrderStatus.values()) {
+            assertFalse(OrderStatus.CANCELLED.canTransitionTo(target));
+            assertFalse(OrderStatus.REFUNDED.canTransitionTo(target));
+        }
+
+        assertEquals(EnumSet.of(OrderStatus.READY), OrderStatus.sourcesOf(OrderStatus.PAID));
+        assertEquals(EnumSet.of(OrderStatus.NEW, OrderStatus.IN_PROGRESS, OrderStatus.READY),
+                OrderStatus.sourcesOf(OrderStatus.CANCELLED));
+        assertEquals(OrderStatus.openStatuses(), EnumSet.of(OrderStatus.NEW, OrderStatus.IN_PROGRESS, OrderStatus.READY));
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void wrongCurrentStatus_isConflict() throws Exception {
+        Long orderId = order(OrderStatus.NEW);
+
+        mockMvc.perform(put("/api/orders/" + orderId + "/pay").param("method", "CARD"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Only orders with status READY can be paid (current status: NEW)"));
+
+        orderService.cancelOrder(orderId, "waiter@test.com");
+        mockMvc.perform(put("/api/orders/" + orderId + "/status").param("status", "IN_PROGRESS"))
+                .andExpect(status().isConflict());
+
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findStatusById(orderId).orElseThrow());
+    }
+
+    @Test
+    @WithMockUser(username = "waiter@test.com", roles = {"WAITER"})
+    public void pay_returnsTheFullOrder() throws Exception {
+        Long orderId = order(OrderStatus.READY);
+
+        mockMvc.perform(put("/api/orders/" + orderId + "/pay").param("method", "CASH"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PAID"))
+                .andExpect(jsonPath("$.waiterUsername").value("waiter@test.com"))
+                .andExpect(jsonPath("$.items[0].menuItemName").value("Freddo"))
+                .andExpect(jsonPath("$.items[0].quantity").value(2))
+                .andExpect(jsonPath("$.items[0].comments").value("no sugar"));
+    }
+
+    @Test
+    public void concurrentPays_exactlyOneWins() throws Exception {
+        Long orderId = order(OrderStatus.READY);
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<OrderDto>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                PaymentMethod method = i % 2 == 0 ? PaymentMethod.CARD : PaymentMethod.CASH;
+                results.add(executor.submit((Callable<OrderDto>) () -> {
+                    start.await();
+                    return orderService.payOrder(orderId, method);
+                }));
+            }
+            start.countDown();
+
+            int paid = 0;
+            for (Future<OrderDto> result : results) {
+                try {
+                    assertEquals(OrderStatus.PAID, result.get().getStatus());
+                    paid++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(OrderConflictException.class, e.getCause());
+                }
+            }
+            assertEquals(1, paid);
+        } finally {
+            executor.shutdown();
+        }
+
+        // The payment is counted once
+        LocalDate today = LocalDate.now();
+        assertEquals(1, salesRollupService.getRollups(RollupBucket.DAY, RollupDimension.TOTAL, today, today)
+                .get(0).getOrderCount());
+    }
+}
@@ -0,0 +1,175 @@
+package waiter.app.Tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import waiter.app.Enums.RefreshTokenRevocation;
+import waiter.app.Enums.Role;
+import waiter.app.entities.User;
+import waiter.app.repositories.RefreshTokenRepository;
+import waiter.app.repositories.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RefreshTokenTest {
+
+    private static final String EMAIL = "refresh@test.com";
+    private static final String PASSWORD = "secret-password";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Long userId;
+
+    @BeforeEach
+    public void seed() {
+        refreshTokenRepository.deleteAll();
+        userRepository.findByEmail(EMAIL).ifPresent(userRepository::delete);
+        User user = new User();
+        user.setEmail(EMAIL);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setRole(Role.WAITER);
+        user.setFullName("Refresh Waiter");
+        userId = userRepository.save(user).getId();
+    }
+
+    private JsonNode login(String deviceId) throws Exception {
+        String body = JSON.createObjectNode().put("email", EMAIL).put("password", PASSWORD)
+                .put("deviceId", deviceId).toString();
+        return JSON.readTree(mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("WAITER"))
+                .andExpect(jsonPath("$.expiresIn").value(15 * 60))
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content(JSON.createObjectNode().put("refreshToken", refreshToken).toString()));
+    }
+
+    private String refreshToken(ResultActions result) throws Exception {
+        return JSON.readTree(result.andReturn().getResponse().getContentAsString()).get("refreshToken").asText();
+    }
+
+    @Test
+    public void refresh_rotatesToken_andIssuesWorkingAccessToken() throws Exception {
+        JsonNode auth = login("pda-1");
+        String first = auth.get("refreshToken").asText();
+        // Stored hashed, never as issued
+        assertTrue(refreshTokenRepository.findAll().stream().noneMatch(t -> t.getTokenHash().equals(first)));
+
+        ResultActions renewed = refresh(first).andExpect(status().isOk()).andExpect(jsonPath("$.role").value("WAITER"));
+        JsonNode next = JSON.readTree(renewed.andReturn().getResponse().getContentAsString());
+        assertNotEquals(first, next.get("refreshToken").asText());
+
+        mockMvc.perform(get("/api/orders").header("Authorization", "Bearer " + next.get("token").asText()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void reusedRefreshToken_revokesWholeSession() throws Exception {
+        String first = login("pda-1").get("refreshToken").asText();
+        String second = refreshToken(refresh(first).andExpect(status().isOk()));
+        String third = refreshToken(refresh(second).andExpect(status().isOk()));
+
+        // Its successor has been used already, so this is not a retry
+        refresh(first).andExpect(status().isUnauthorized());
+        // The legitimate holder of the latest token has to log in again too
+        refresh(third).andExpect(status().isUnauthorized());
+        assertEquals(RefreshTokenRevocation.REUSE_DETECTED, refreshTokenRepository.findAll().stream()
+                .filter(t -> t.getRevokedReason() != RefreshTokenRevocation.ROTATED)
+                .findFirst().orElseThrow().getRevokedReason());
+    }
+
+    @Test
+    public void retryAfterLostResponse_getsReplacementSuccessor() throws Exception {
+        String first = login("pda-1").get("refreshToken").asText();
+        String lost = refreshToken(refresh(first).andExpect(status().isOk()));
+
+        // The PDA never saw the response and sends the same token again
+        String retried = refreshToken(refresh(first).andExpect(status().isOk()));
+        assertNotEquals(lost, retried);
+
+        // Only the replacement stays valid; the lost successor now counts as reuse
+        refresh(retried).andExpect(status().isOk());
+        refresh(lost).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void retryAfterGraceWindow_isReuse() throws Exception {
+        String first = login("pda-1").get("refreshToken").asText();
+        String second = refreshToken(refresh(first).andExpect(status().isOk()));
+        refreshTokenRepository.findAll().stream()
+                .filter(t -> t.getRevokedReason() == RefreshTokenRevocation.ROTATED)
+                .forEach(t -> {
+                    t.setRevokedAt(LocalDateTime.now().minusMinutes(5));
+                    refreshTokenRepository.save(t);
+                });
+
+        refresh(first).andExpect(status().isUnauthorized());
+        refresh(second).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void logoutAndNewLogin_revokeOnlyThatDevice() throws Exception {
+        String tablet = login("pda-1").get("refreshToken").asText();
+        String phone = login("pda-2").get("refreshToken").asText();
+        String tabletAgain = login("pda-1").get("refreshToken").asText();
+
+        refresh(tablet).andExpect(status().isUnauthorized());     // replaced by the new login on pda-1
+
+        mockMvc.perform(post("/api/auth/logout").contentType(MediaType.APPLICATION_JSON)
+                        .content(JSON.createObjectNode().put("refreshToken", tabletAgain).toString()))
+                .andExpect(status().isOk());
+        refresh(tabletAgain).andExpect(status().isUnauthorized());
+        refresh(phone).andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    public void adminRevocation_perDeviceAndPerUser() throws Exception {
+        String tablet = login("pda-1").get("refreshToken").asText();
+        String phone = login("pda-2").get("refreshToken").asText();
+
+        mockMvc.perform(delete("/api/users/" + userId + "/sessions").param("deviceId", "pda-1"))
+                .andExpect(status().isOk());
+        refresh(tablet).andExpect(status().isUnauthorized());
+        String phoneNext = refreshToken(refresh(phone).andExpect(status().isOk()));
+
+        mockMvc.perform(delete("/api/users/" + userId + "/sessions")).andExpect(status().isOk());
+        refresh(phoneNext).andExpect(status().isUnauthorized());
+    }
+}
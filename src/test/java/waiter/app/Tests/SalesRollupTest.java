@@ -0,0 +1,113 @@
+package waiter.app.Tests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import waiter.app.Enums.OrderStatus;
+import waiter.app.Enums.PaymentMethod;
+import waiter.app.Enums.RollupBucket;
+import waiter.app.Enums.RollupDimension;
+import waiter.app.dto.SalesRollupDto;
+import waiter.app.entities.MenuItem;
+import waiter.app.entities.Order;
+import waiter.app.entities.OrderItem;
+import waiter.app.repositories.MenuItemRepository;
+import waiter.app.repositories.OrderRepository;
+import waiter.app.repositories.SalesRollupRepository;
+import waiter.app.services.OrderService;
+import waiter.app.services.SalesRollupService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SalesRollupTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    private MenuItem coffee;
+    private MenuItem toast;
+
+    @BeforeEach
+    public void seed() {
+        salesRollupRepository.deleteAll();
+        orderRepository.deleteAll();
+        menuItemRepository.deleteAll();
+        coffee = menuItemRepository.save(MenuItem.builder().name("Freddo").price(3.5).available(true).build());
+        toast = menuItemRepository.save(MenuItem.builder().name("Toast").price(2.0).available(true).build());
+    }
+
+    private Long readyOrder(String waiter, int coffees, int toasts) {
+        Order order = Order.builder()
+                .createdAt(LocalDateTime.now())
+                .status(OrderStatus.READY)
+                .waiterUsername(waiter)
+                .totalAmountMinor(coffees * 350L + toasts * 200L)
+                .items(new ArrayList<>())
+                .build();
+        order.getItems().add(OrderItem.builder().order(order).menuItem(coffee).quantity(coffees).unitPriceMinor(350).build());
+        order.getItems().add(OrderItem.builder().order(order).menuItem(toast).quantity(toasts).unitPriceMinor(200).build());
+        return orderRepository.save(order).getId();
+    }
+
+    private List<SalesRollupDto> today(RollupDimension dimension) {
+        LocalDate today = LocalDate.now();
+        return salesRollupService.getRollups(RollupBucket.DAY, dimension, today, today);
+    }
+
+    @Test
+    public void payAndRefund_updateRollupsInPlace() {
+        Long first = readyOrder("anna@test.com", 2, 1);
+        Long second = readyOrder("nikos@test.com", 1, 0);
+
+        orderService.payOrder(first, PaymentMethod.CARD);
+        orderService.payOrder(second, PaymentMethod.CASH);
+
+        SalesRollupDto total = today(RollupDimension.TOTAL).get(0);
+        assertEquals(2, total.getOrderCount());
+        assertEquals(4, total.getItemQuantity());
+        assertEquals(900 + 350, total.getRevenueMinor());
+        assertEquals(2, today(RollupDimension.WAITER).size());
+        assertEquals(2, today(RollupDimension.PAYMENT_METHOD).size());
+
+        orderService.refundOrder(second, "admin@test.com", "Wrong table");
+
+        total = today(RollupDimension.TOTAL).get(0);
+        assertEquals(1, total.getRefundCount());
+        assertEquals(900, total.getNetMinor());
+    }
+
+    @Test
+    public void rebuild_matchesLiveRollups() {
+        orderService.payOrder(readyOrder("anna@test.com", 2, 1), PaymentMethod.CARD);
+        Long refunded = readyOrder("anna@test.com", 1, 3);
+        orderService.payOrder(refunded, PaymentMethod.CASH);
+        orderService.refundOrder(refunded, "admin@test.com", "Cold");
+
+        List<SalesRollupDto> live = today(RollupDimension.MENU_ITEM);
+        salesRollupRepository.deleteAll();
+        salesRollupService.rebuild(LocalDate.now(), LocalDate.now());
+
+        assertEquals(live, today(RollupDimension.MENU_ITEM));
+    }
+}
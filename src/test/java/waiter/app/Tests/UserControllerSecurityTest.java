@@ -1,19 +1,24 @@
 package waiter.app.Tests;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import waiter.app.controllers.UserController;
 import waiter.app.repositories.UserRepository;
+import waiter.app.services.IdempotencyStore;
+import waiter.app.services.RefreshTokenService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
+@Import(SimpleMeterRegistry.class) // JwtAuthenticationFilter records its timings
 public class UserControllerSecurityTest {
 
     @Autowired
@@ -25,6 +30,12 @@ public class UserControllerSecurityTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
     @Test
     public void accessDeniedWithoutAuth() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/api/users"))